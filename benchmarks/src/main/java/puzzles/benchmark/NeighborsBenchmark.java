@@ -0,0 +1,96 @@
+package puzzles.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import puzzles.common.solver.Configuration;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the per configuration operations a solver does: generating neighbors, hashing and
+ * comparing. Each operation cycles through the first configurations a BFS reaches from the start.
+ * Every puzzle runs in its own fork, so the JIT doesn't optimize one puzzle's code for the puzzles before it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NeighborsBenchmark {
+    @Param({
+            "jam/jam-0", "jam/jam-1", "jam/jam-2", "jam/jam-3", "jam/jam-4", "jam/jam-5",
+            "jam/jam-6", "jam/jam-7", "jam/jam-8", "jam/jam-9", "jam/jam-10", "jam/jam-11",
+            "tilt/tilt-0", "tilt/tilt-1", "tilt/tilt-2", "tilt/tilt-3", "tilt/tilt-4", "tilt/tilt-5",
+            "tilt/tilt-6", "tilt/tilt-7", "tilt/tilt-8", "tilt/tilt-9", "tilt/tilt-10",
+            "strings/AB-XD", "strings/ABC-BZD", "strings/B-!", "strings/B-Y", "strings/CAT-DOG",
+            "strings/MARCH-APRIL", "strings/P-U",
+            "strings/JANUARYFEBRUARYMARCH-OCTOBERNOVEMBERAPRIL",
+            "strings/JANUARYFEBRUARYMARCHJANUARYFEBRUARYMARCHJANUARYFEBRUARYMARCHJANUARYFEBRUARYMARCHJANUARYFEBRUARYMARCH-"
+                    + "OCTOBERNOVEMBERAPRILOCTOBERNOVEMBERAPRILOCTOBERNOVEMBERAPRILOCTOBERNOVEMBERAPRILOCTOBERNOVEMBERAPRIL",
+            "water/4-3-5", "water/4-6-15", "water/2-5-9-14", "water/17-19-31", "water/30-23-31-43",
+            "water/16-11-17-29-41", "water/42-70-39-1001", "water/37-5-11-17-29-41",
+            "water/60-39-269-677-919-1553", "water/1042-1086-1097-1100-2163"
+    })
+    public String puzzle;
+
+    private Configuration[] configs;//Configurations in BFS order from the start
+    private Configuration[] copies;//An equal but separate configuration for each of configs
+    private int next;//The configuration the next operation uses
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Configuration> sample = Puzzles.sample(Puzzles.load(puzzle), 1024);
+        configs = sample.toArray(new Configuration[0]);
+        copies = Puzzles.sample(Puzzles.load(puzzle), configs.length).toArray(new Configuration[0]);
+    }
+
+    /**
+     * @return the index of the configuration for the next operation
+     */
+    private int next() {
+        int index = next;
+        next = index + 1 == configs.length ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public Collection<Configuration> getNeighbors() {
+        return configs[next()].getNeighbors();
+    }
+
+    @Benchmark
+    public void forEachNeighbor(Blackhole blackhole) {
+        configs[next()].forEachNeighbor(blackhole::consume);
+    }
+
+    @Benchmark
+    public int hashCodes() {
+        return configs[next()].hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsEqual() {
+        int index = next();
+        return configs[index].equals(copies[index]);
+    }
+
+    @Benchmark
+    public boolean equalsDifferent() {
+        int index = next();
+        return configs[index].equals(configs[index == 0 ? configs.length - 1 : index - 1]);
+    }
+}
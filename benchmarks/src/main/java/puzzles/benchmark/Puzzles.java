@@ -0,0 +1,117 @@
+package puzzles.benchmark;
+
+import puzzles.common.solver.Configuration;
+import puzzles.jam.model.JamModel;
+import puzzles.strings.StringsConfig;
+import puzzles.tilt.model.TiltBitboardConfig;
+import puzzles.tilt.model.TiltConfig;
+import puzzles.tilt.model.TiltModel;
+import puzzles.water.WaterConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Creates the starting configurations of the benchmarked puzzles. A puzzle is named by its type and its
+ * input the same way the shipped files are: jam/jam-4 and tilt/tilt-4 are boards in the data directory,
+ * strings/CAT-DOG is the start and finish string and water/4-3-5 is the amount followed by the buckets.
+ */
+final class Puzzles {
+    private Puzzles() {
+    }
+
+    /**
+     * Create the starting configuration of a puzzle
+     * @param puzzle the puzzle name, such as jam/jam-4 or water/4-3-5
+     * @return the starting configuration
+     */
+    static Configuration load(String puzzle) {
+        String type = puzzle.substring(0, puzzle.indexOf('/'));
+        String name = puzzle.substring(puzzle.indexOf('/') + 1);
+        switch (type) {
+            case "jam" -> {
+                JamModel model = new JamModel();
+                model.loadFile(file(puzzle));
+                if (!model.isLoaded()) {
+                    throw new IllegalArgumentException("Failed to load " + file(puzzle));
+                }
+                return model.getConfig();
+            }
+            case "tilt" -> {
+                return tilt(file(puzzle));
+            }
+            case "strings" -> {
+                int dash = name.indexOf('-');
+                return new StringsConfig(name.substring(0, dash), name.substring(dash + 1));
+            }
+            case "water" -> {
+                String[] numbers = name.split("-");
+                int[] buckets = new int[numbers.length - 1];
+                for (int i = 1; i < numbers.length; i++) {
+                    buckets[i - 1] = Integer.parseInt(numbers[i]);
+                }
+                return new WaterConfig(Integer.parseInt(numbers[0]), buckets);
+            }
+            default -> throw new IllegalArgumentException("Unknown puzzle " + puzzle);
+        }
+    }
+
+    /**
+     * Collect configurations of a puzzle in BFS order from its start, so benchmarks see the
+     * configurations a solver sees and not only the start
+     * @param start the starting configuration
+     * @param count the most configurations to collect
+     * @return the configurations
+     */
+    static List<Configuration> sample(Configuration start, int count) {
+        List<Configuration> sample = new ArrayList<>();
+        Set<Configuration> seen = new HashSet<>();
+        Queue<Configuration> queue = new LinkedList<>();
+        seen.add(start);
+        queue.add(start);
+        while (!queue.isEmpty() && sample.size() < count) {
+            Configuration config = queue.remove();
+            sample.add(config);
+            for (Configuration neighbor : config.getNeighbors()) {
+                if (seen.add(neighbor)) {
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * @param puzzle the puzzle name
+     * @return the path of the puzzle's file in the data directory
+     */
+    private static String file(String puzzle) {
+        String data = System.getProperty("puzzles.data");
+        if (data == null) {
+            data = new File("data").isDirectory() ? "data" : "../data";
+        }
+        return data + File.separator + puzzle + ".txt";
+    }
+
+    /**
+     * Loads a tilt board through the same loader as the Tilt solver, boards that fit in a long use bitboards
+     * @param filename the board file
+     * @return the starting configuration
+     */
+    private static Configuration tilt(String filename) {
+        try {
+            TiltConfig config = TiltModel.readConfig(filename);
+            char[][] board = config.getBoard();
+            return TiltBitboardConfig.fits(board.length) ? new TiltBitboardConfig(board.length, board) : config;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package puzzles.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Solver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of a whole Solver.solve run from the start of each shipped puzzle, like the command line solvers do.
+ * The start config is loaded once before measuring, configs are immutable so every solve can start from it,
+ * and only the search is timed. Every puzzle runs in its own fork, so the JIT doesn't optimize one puzzle's
+ * code for the puzzles before it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({
+            "jam/jam-0", "jam/jam-1", "jam/jam-2", "jam/jam-3", "jam/jam-4", "jam/jam-5",
+            "jam/jam-6", "jam/jam-7", "jam/jam-8", "jam/jam-9", "jam/jam-10", "jam/jam-11",
+            "tilt/tilt-0", "tilt/tilt-1", "tilt/tilt-2", "tilt/tilt-3", "tilt/tilt-4", "tilt/tilt-5",
+            "tilt/tilt-6", "tilt/tilt-7", "tilt/tilt-8", "tilt/tilt-9", "tilt/tilt-10",
+            "strings/AB-XD", "strings/ABC-BZD", "strings/B-!", "strings/B-Y", "strings/CAT-DOG",
+            "strings/MARCH-APRIL", "strings/P-U",
+            "water/4-3-5", "water/4-6-15", "water/2-5-9-14", "water/17-19-31", "water/30-23-31-43",
+            "water/16-11-17-29-41", "water/42-70-39-1001", "water/37-5-11-17-29-41",
+            "water/60-39-269-677-919-1553", "water/1042-1086-1097-1100-2163"
+    })
+    public String puzzle;
+
+    private Configuration start;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        start = Puzzles.load(puzzle);
+    }
+
+    @Benchmark
+    public Iterable<Configuration> solve() {
+        return new Solver().solve(start);
+    }
+}
@@ -0,0 +1,146 @@
+package puzzles.batch;
+
+import puzzles.common.solver.SolverArgs;
+import puzzles.jam.solver.Jam;
+import puzzles.strings.Strings;
+import puzzles.tilt.solver.Tilt;
+import puzzles.water.Water;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Solves many puzzles in one JVM, several at a time on a fixed thread pool, so JVM startup and JIT
+ * warm up are only paid once. Each puzzle's output is written to its own file, in the same format as
+ * the puzzle's own solver prints it.
+ *
+ * The puzzles come from either a directory of jam or tilt files, the puzzle being the directory's name
+ * (data/jam, data/tilt), or a manifest with one puzzle per line: the puzzle's name followed by the
+ * arguments its solver takes, e.g. "jam data/jam/jam-4.txt", "strings CAT DOG" or "water 4 3 5".
+ * Blank lines and lines starting with # are skipped.
+ */
+public class Batch {
+    /**
+     * One puzzle to solve
+     * @param puzzle jam, tilt, strings or water
+     * @param name the name of its output, like jam-4 or water-4-3-5
+     * @param args the arguments its solver takes
+     */
+    private record Task(String puzzle, String name, String[] args) {}
+
+    /**
+     * Solve every puzzle in a directory or manifest
+     * @param args [0]: the directory or manifest;
+     *             [1]: the directory to write outputs to, each one as puzzle/name-out.txt;
+     *             [2]: optional, the number of puzzles solved at once, one per processor by default
+     */
+    public static void main(String[] args) {
+        int threads = args.length == 3 ? SolverArgs.threads(args[2]) : Runtime.getRuntime().availableProcessors();
+        if ((args.length != 2 && args.length != 3) || threads == -1) {
+            System.out.println("Usage: java Batch directory|manifest output [threads]");
+            return;
+        }
+        List<Task> tasks;
+        try {
+            tasks = tasks(Path.of(args[0]));
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Failed to read puzzles: " + e.getMessage());
+            return;
+        }
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> times = new ArrayList<>();
+        for (Task task : tasks) {
+            times.add(pool.submit(() -> solve(task, Path.of(args[1]))));
+        }
+        pool.shutdown();
+
+        //Report in the order the puzzles were given
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                System.out.printf("%s: %.1f ms%n", tasks.get(i).name, times.get(i).get() / 1e6);
+            } catch (Exception e) {
+                System.out.println(tasks.get(i).name + ": failed, " + (e.getCause() != null ? e.getCause() : e));
+            }
+        }
+        System.out.printf("Solved %d puzzles in %.1f ms on %d threads%n", tasks.size(), (System.nanoTime() - start) / 1e6, threads);
+    }
+
+    /**
+     * Solve a puzzle into its output file
+     * @param task the puzzle
+     * @param output the directory outputs go in
+     * @return the time it took to solve and write, in nanoseconds
+     * @throws IOException if the output can't be written
+     */
+    private static long solve(Task task, Path output) throws IOException {
+        Path file = output.resolve(task.puzzle).resolve(task.name + "-out.txt");
+        Files.createDirectories(file.getParent());
+        long start = System.nanoTime();
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(Files.newBufferedWriter(file), 1 << 16))) {
+            switch (task.puzzle) {
+                case "jam" -> Jam.solve(task.args, out);
+                case "tilt" -> Tilt.solve(task.args, out);
+                case "strings" -> Strings.solve(task.args, out);
+                case "water" -> Water.solve(task.args, out);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Read the puzzles to solve
+     * @param input a directory of jam or tilt files, or a manifest
+     * @return the puzzles, in name order for a directory and in line order for a manifest
+     * @throws IOException if the input can't be read
+     */
+    private static List<Task> tasks(Path input) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        if (Files.isDirectory(input)) {
+            String puzzle = input.getFileName().toString();
+            File[] files = input.toFile().listFiles((dir, name) -> name.endsWith(".txt"));
+            Arrays.sort(files);
+            for (File file : files) {
+                tasks.add(task(puzzle, new String[]{file.getPath()}));
+            }
+        } else {
+            for (String line : Files.readAllLines(input)) {
+                line = line.strip();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    String[] words = line.split("\\s+");
+                    tasks.add(task(words[0], Arrays.copyOfRange(words, 1, words.length)));
+                }
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Name a puzzle's output the way the shipped outputs are named
+     * @param puzzle jam, tilt, strings or water
+     * @param args the arguments its solver takes
+     * @return the puzzle to solve
+     */
+    private static Task task(String puzzle, String[] args) {
+        String name = switch (puzzle) {
+            case "jam", "tilt" -> {
+                String file = Path.of(args[0]).getFileName().toString();
+                yield file.endsWith(".txt") ? file.substring(0, file.length() - 4) : file;
+            }
+            case "strings", "water" -> puzzle + "-" + String.join("-", args);
+            default -> throw new IllegalArgumentException("unknown puzzle " + puzzle);
+        };
+        return new Task(puzzle, name, args);
+    }
+}
@@ -0,0 +1,110 @@
+package puzzles.common;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Runs a puzzle generator on a pool of threads. Every thread has a random generator split off from one seed
+ * and keeps making candidate boards, and every board whose shortest solution is long enough is written to a
+ * directory as gen-0.txt, gen-1.txt, ..., unless another thread already wrote the same board.
+ */
+public final class Generate {
+    /**
+     * A generated board
+     */
+    public interface Board {
+        /**
+         * @return the amount of moves its shortest solution takes
+         */
+        int moves();
+
+        /**
+         * @return the board in the format of the puzzle's data files
+         */
+        String format();
+
+        /**
+         * @return what is printed about the board once it is written, like how many moves it takes
+         */
+        String summary();
+    }
+
+    private Generate() {
+    }
+
+    /**
+     * Generates boards until enough were written, then prints how fast candidates were made
+     * @param count the amount of boards to write
+     * @param minMoves the fewest moves a board's shortest solution may take
+     * @param output the directory to write the boards to
+     * @param threads the amount of threads generating boards
+     * @param generator makes one candidate board from a random generator, null if the candidate is no good;
+     *                  it is called from every thread at once
+     */
+    public static void run(int count, int minMoves, Path output, int threads, Function<SplittableRandom, ? extends Board> generator) {
+        try {
+            Files.createDirectories(output);
+        } catch (IOException e) {
+            System.out.println("Failed to create " + output + ": " + e.getMessage());
+            return;
+        }
+
+        Set<String> boards = ConcurrentHashMap.newKeySet();//Every board written, so no board is written twice
+        AtomicInteger written = new AtomicInteger();
+        AtomicLong tried = new AtomicLong();
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        SplittableRandom seeds = new SplittableRandom();
+        for (int i = 0; i < threads; i++) {
+            SplittableRandom random = seeds.split();
+            workers.add(pool.submit(() -> {
+                while (written.get() < count) {
+                    tried.incrementAndGet();
+                    Board board = generator.apply(random);
+                    if (board == null || board.moves() < minMoves) {
+                        continue;
+                    }
+                    String text = board.format();
+                    if (!boards.add(text)) {
+                        continue;
+                    }
+                    int number = written.getAndIncrement();
+                    if (number >= count) {
+                        break;
+                    }
+                    Path file = output.resolve("gen-" + number + ".txt");
+                    Files.writeString(file, text);
+                    System.out.printf("%s: %s%n", file.getFileName(), board.summary());
+                }
+                return null;
+            }));
+        }
+        pool.shutdown();
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (Exception e) {
+                System.out.println("A generator failed: " + (e.getCause() != null ? e.getCause() : e));
+                pool.shutdownNow();
+                return;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Generated %d boards of at least %d moves from %d candidates in %.1f s on %d threads, " +
+                        "%.0f candidates per second per thread, %.0f boards per minute%n",
+                count, minMoves, tried.get(), seconds, threads, tried.get() / seconds / threads, count / seconds * 60);
+    }
+}
@@ -0,0 +1,174 @@
+package puzzles.common;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Loads puzzle files. A file is mapped into memory and its whitespace separated tokens are read
+ * straight out of the mapped bytes, numbers and single letters without making a String for each line
+ * or token. What a format makes of a file is cached by the file's path, and is only parsed again once
+ * the file's modification time or size changes, so loading the same puzzle again, like a reset does,
+ * only costs a look at the file's attributes. Formats have to make a start state nobody changes, since
+ * every load of a file gets the same one. When the cache is full the least recently loaded file is
+ * forgotten. Loading is thread safe.
+ */
+public final class PuzzleFile {
+    /**
+     * How a kind of puzzle file is read
+     * @param <T> what a file is read into
+     */
+    @FunctionalInterface
+    public interface Format<T> {
+        /**
+         * Read a puzzle out of a file
+         * @param file The tokens of the file
+         * @return start The start state the file describes, which must never be changed
+         * @throws IllegalArgumentException If the file is not in the format
+         */
+        T read(PuzzleFile file);
+    }
+
+    private static final int CAPACITY = 10_000;//The most files the cache remembers
+
+    /**
+     * A cached file
+     * @param modified When the file was last modified when it was read
+     * @param size The size of the file when it was read
+     * @param start What the file was read into
+     */
+    private record Loaded(FileTime modified, long size, Object start) {}
+
+    /**
+     * What a cached file is known by
+     * @param path The absolute path of the file
+     * @param format The format it was read with
+     */
+    private record Key(Path path, Format<?> format) {}
+
+    private static final LinkedHashMap<Key,Loaded> CACHE = new LinkedHashMap<>(16, 0.75f, true){
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key,Loaded> eldest){
+            return size() > CAPACITY;
+        }
+    };
+
+    private final String name;//The file name, for error messages
+    private final MappedByteBuffer bytes;//The contents of the file, read from the front
+
+    /**
+     * Start reading a mapped file
+     * @param name The file name
+     * @param bytes The contents of the file
+     */
+    private PuzzleFile(String name, MappedByteBuffer bytes){
+        this.name = name;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Load a puzzle file, reading it only if it was never read with this format or changed since
+     * @param fileName The file to load
+     * @param format How to read it
+     * @param <T> What the file is read into
+     * @return start The start state the file describes, shared by every load of the file
+     * @throws IOException If the file can't be read
+     * @throws IllegalArgumentException If the file is not in the format
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T load(String fileName, Format<T> format) throws IOException {
+        Path path = Path.of(fileName).toAbsolutePath();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        Key key = new Key(path, format);
+        Loaded loaded;
+        synchronized (CACHE) {
+            loaded = CACHE.get(key);
+        }
+        if(loaded != null && loaded.modified().equals(attributes.lastModifiedTime()) && loaded.size() == attributes.size()){
+            return (T) loaded.start();
+        }
+        T start;
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            start = format.read(new PuzzleFile(fileName, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())));
+        }
+        synchronized (CACHE) {
+            CACHE.put(key, new Loaded(attributes.lastModifiedTime(), attributes.size(), start));
+        }
+        return start;
+    }
+
+    /**
+     * Read the next token as a number
+     * @return number The number
+     * @throws IllegalArgumentException If there is no next token or it is not a number
+     */
+    public int nextInt(){
+        skipSpace();
+        boolean negative = bytes.hasRemaining() && bytes.get(bytes.position()) == '-';
+        if(negative){
+            bytes.get();
+        }
+        int number = 0, digits = 0;
+        while(bytes.hasRemaining() && !isSpace(bytes.get(bytes.position()))){
+            int digit = bytes.get() - '0';
+            if(digit < 0 || digit > 9 || number > (Integer.MAX_VALUE - digit) / 10){
+                throw error("a number");
+            }
+            number = number * 10 + digit;
+            digits++;
+        }
+        if(digits == 0){
+            throw error("a number");
+        }
+        return negative ? -number : number;
+    }
+
+    /**
+     * Read the next token as a single letter, anything after its first character is skipped
+     * @return letter The first character of the token
+     * @throws IllegalArgumentException If there is no next token
+     */
+    public char nextChar(){
+        skipSpace();
+        if(!bytes.hasRemaining()){
+            throw error("a letter");
+        }
+        char letter = (char) (bytes.get() & 0xFF);
+        while(bytes.hasRemaining() && !isSpace(bytes.get(bytes.position()))){
+            bytes.get();
+        }
+        return letter;
+    }
+
+    /**
+     * Move past the whitespace before the next token
+     */
+    private void skipSpace(){
+        while(bytes.hasRemaining() && isSpace(bytes.get(bytes.position()))){
+            bytes.get();
+        }
+    }
+
+    /**
+     * @param b A byte of the file
+     * @return space If the byte is whitespace between tokens
+     */
+    private static boolean isSpace(byte b){
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    /**
+     * @param expected What the file should have had
+     * @return error The error for the token at the current position
+     */
+    private IllegalArgumentException error(String expected){
+        return new IllegalArgumentException(name + ": expected " + expected + " at byte " + bytes.position());
+    }
+}
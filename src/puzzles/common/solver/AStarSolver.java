@@ -0,0 +1,87 @@
+package puzzles.common.solver;
+
+import java.util.HashMap;
+import java.util.PriorityQueue;
+
+/**
+ * An A* solver. Configurations are expanded in order of moves made so far plus the estimate of moves left,
+ * taken from HeuristicConfiguration (configurations without one are estimated as 0, which makes this a
+ * uniform cost search). As long as the estimates never overestimate, the path found is a shortest one,
+ * but far fewer configurations are visited than with BFS when the estimates are good.
+ * A listener is told about every cost the search is done with, the cost being the depth of that level.
+ */
+public class AStarSolver extends Solver {
+    private long order;//Number of nodes queued so far
+
+    /**
+     * A configuration waiting in the open queue
+     * @param config The configuration
+     * @param moves The number of moves from the start config
+     * @param cost The moves plus the estimate of moves left
+     * @param order When it was queued, to break ties first in first out
+     */
+    private record Node(Configuration config, int moves, int cost, long order) {}
+
+    /**
+     * Method to execute an A* search
+     * @param startConfig The starting configuration
+     * @return path The path from the start config to target config
+     */
+    @Override
+    public Iterable<Configuration> solve(Configuration startConfig){
+        HashMap<Configuration,Configuration> predecessors = new HashMap<>();//Each config and the config it came from
+        HashMap<Configuration,Integer> moves = new HashMap<>();//The fewest moves found to reach each config
+        //Lowest cost first, and among those the deepest so the search dives towards a solution
+        PriorityQueue<Node> open = new PriorityQueue<>((a, b) -> a.cost != b.cost ? Integer.compare(a.cost, b.cost) :
+                a.moves != b.moves ? Integer.compare(b.moves, a.moves) : Long.compare(a.order, b.order));
+        order = 0;
+        searchStarted();
+
+        predecessors.put(startConfig, null);
+        moves.put(startConfig, 0);
+        open.add(new Node(startConfig, 0, estimate(startConfig), order++));
+        uniqueConfigs++;
+        totalConfigs++;
+
+        int bound = estimate(startConfig);//The cost of the configs being expanded
+        while(!open.isEmpty()){
+            Node node = open.remove();
+            if(node.moves > moves.get(node.config)){//A shorter way to this config was found after it was queued
+                continue;
+            }
+            if(node.cost > bound){//Every config that cost less was expanded
+                levelFinished(bound, open.size() + 1);
+                bound = node.cost;
+            }
+            if(node.config.isSolution()){
+                searchFinished(bound, open.size());
+                return SolutionPath.backwards(node.config, predecessors::get);
+            }
+            expandedConfigs++;
+            checkBudget();
+            node.config.forEachNeighbor(c -> {
+                totalConfigs++;
+                Integer known = moves.get(c);
+                if(known == null || node.moves + 1 < known){
+                    if(known == null){
+                        uniqueConfigs++;
+                    }
+                    predecessors.put(c, node.config);
+                    moves.put(c, node.moves + 1);
+                    open.add(new Node(c, node.moves + 1, node.moves + 1 + estimate(c), order++));
+                }
+            });
+        }
+        searchFinished(bound, 0);
+        return null;//Every reachable config was expanded with no solution being found
+    }
+
+    /**
+     * Get the estimate of moves left from a configuration
+     * @param config The configuration
+     * @return estimate Its heuristic estimate, or 0 if it has none
+     */
+    private static int estimate(Configuration config){
+        return config instanceof HeuristicConfiguration heuristic ? heuristic.estimate() : 0;
+    }
+}
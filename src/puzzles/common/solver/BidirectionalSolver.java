@@ -0,0 +1,127 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A BFS solver that searches forward from the start and backward from the goals until the two searches meet.
+ * It always expands a whole level of whichever side has the smaller frontier, so instead of exploring
+ * roughly b^d configurations it explores about 2 * b^(d/2). Puzzles that are not reversible are solved
+ * with the regular forward search. A listener is told about every level either side finishes, the depth
+ * being the levels both sides have finished together.
+ */
+public class BidirectionalSolver extends Solver {
+
+    /**
+     * Method to execute a bidirectional Breadth First Search
+     * @param startConfig The starting configuration
+     * @return path The path from the start config to target config
+     */
+    @Override
+    public Iterable<Configuration> solve(Configuration startConfig){
+        if(!(startConfig instanceof ReversibleConfiguration reversible) || !reversible.isReversible()){
+            return super.solve(startConfig);
+        }
+        searchStarted();
+        HashMap<Configuration,Configuration> forward = new HashMap<>();//Each config and the config it came from
+        HashMap<Configuration,Configuration> backward = new HashMap<>();//Each config and the config it leads to
+        List<Configuration> forwardLevel = new ArrayList<>();//The forward frontier
+        List<Configuration> backwardLevel = new ArrayList<>();//The backward frontier
+
+        forward.put(startConfig, null);
+        forwardLevel.add(startConfig);
+        uniqueConfigs++;
+        totalConfigs++;
+        if(startConfig.isSolution()){
+            searchFinished(0, 0);
+            return path(forward, backward, startConfig);
+        }
+        Configuration meeting = null;//A config both searches reached
+        for(Configuration goal : reversible.getGoals()){
+            totalConfigs++;
+            if(!backward.containsKey(goal)){
+                backward.put(goal, null);
+                backwardLevel.add(goal);
+                uniqueConfigs++;
+            }
+        }
+
+        int depth = 0;//The number of levels both searches finished
+        //Loops until the searches meet or one side runs out of configs, which means there is no solution
+        while(meeting == null && !forwardLevel.isEmpty() && !backwardLevel.isEmpty()){
+            boolean forwards = forwardLevel.size() <= backwardLevel.size();
+            HashMap<Configuration,Configuration> mine = forwards ? forward : backward;
+            HashMap<Configuration,Configuration> other = forwards ? backward : forward;
+            List<Configuration> next = new ArrayList<>();
+            int best = Integer.MAX_VALUE;//Length of the other side's chain from the best meeting config
+
+            //Expand the whole level so the best meeting config of this level can be picked
+            for(Configuration thisConfig : forwards ? forwardLevel : backwardLevel){
+                expandedConfigs++;
+                checkBudget();
+                Collection<Configuration> neighbors = forwards ?
+                        thisConfig.getNeighbors() : ((ReversibleConfiguration) thisConfig).getPredecessors();
+                for(Configuration c : neighbors){
+                    totalConfigs++;
+                    if(!mine.containsKey(c)){
+                        mine.put(c, thisConfig);
+                        next.add(c);
+                        if(!other.containsKey(c)){
+                            uniqueConfigs++;
+                        }else if(chain(other, c) < best){
+                            best = chain(other, c);
+                            meeting = c;
+                        }
+                    }
+                }
+            }
+            if(forwards){
+                forwardLevel = next;
+            }else{
+                backwardLevel = next;
+            }
+            levelFinished(depth++, next.size());
+        }
+        searchFinished(depth, forwardLevel.size() + backwardLevel.size());
+        return meeting == null ? null : path(forward, backward, meeting);
+    }
+
+    /**
+     * Count the steps from a config to the end of its chain in a map
+     * @param links Map of each config to the next config in its chain
+     * @param config The config to start from
+     * @return length The number of steps in the chain
+     */
+    private static int chain(HashMap<Configuration,Configuration> links, Configuration config){
+        int length = 0;
+        for(Configuration c = links.get(config); c != null; c = links.get(c)){
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Join the forward chain from the start to the meeting config with the backward chain to a goal
+     * @param forward Map of each config to the config it came from
+     * @param backward Map of each config to the config it leads to
+     * @param meeting The config both searches reached
+     * @return path The path from the start config to a goal config
+     */
+    private static Iterable<Configuration> path(HashMap<Configuration,Configuration> forward,
+                                                HashMap<Configuration,Configuration> backward,
+                                                Configuration meeting){
+        int before = chain(forward, meeting);
+        Configuration[] path = new Configuration[before + chain(backward, meeting) + 1];
+        int step = before;
+        for(Configuration c = meeting; c != null; c = forward.get(c)){
+            path[step--] = c;
+        }
+        step = before + 1;
+        for(Configuration c = backward.get(meeting); c != null; c = backward.get(c)){
+            path[step++] = c;
+        }
+        return new SolutionPath(path.length, i -> path[i]);
+    }
+}
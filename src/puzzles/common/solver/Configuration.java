@@ -1,6 +1,7 @@
 package puzzles.common.solver;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 
 /**
  * The representation of a single configuration for a puzzle.
@@ -20,6 +21,16 @@ public interface Configuration {
      */
     Collection<Configuration> getNeighbors();
 
+    /**
+     * Hand each neighbor of the current configuration to an action, one at a time.
+     * The solvers call this instead of getNeighbors, so a puzzle can override it to produce its
+     * neighbors without collecting them first.
+     * @param action What to do with each neighbor
+     */
+    default void forEachNeighbor(Consumer<Configuration> action) {
+        getNeighbors().forEach(action);
+    }
+
     //////////////////////////////////////////////////////////////////////////////////////
     // The predecessor map from the BFS Solver forces to any puzzle configuration       //
     // to override the equals and hashCode methods.                                     //
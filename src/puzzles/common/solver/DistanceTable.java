@@ -0,0 +1,243 @@
+package puzzles.common.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * The exact number of moves to a solution from every configuration reachable from a start configuration.
+ * The table is built with a BFS that enumerates every reachable configuration, followed by a retrograde
+ * BFS that starts from all the solutions at once and steps backwards through neighbors. Stepping backwards
+ * through neighbors is only correct for puzzles where every move can be undone, i.e. a configuration is
+ * always a neighbor of each of its neighbors (like sliding cars in Jam).
+ * Once built, a hint is one neighbor expansion plus a table lookup per neighbor, with no search at all.
+ */
+public class DistanceTable {
+    public static final int UNSOLVABLE = -1;//Distance of a config that can't reach a solution
+    public static final int UNKNOWN = -2;//Distance of a config that isn't in the table
+
+    private static final int MAGIC = 0x44495332;//"DIS2", the start of every table file, older ones had no fingerprint
+    private static final int MAX_DISTANCE = 254;//Largest distance that fits in a byte, 255 is unsolvable
+
+    private final long fingerprint;//The key fingerprint of the config the table was built from
+    private final long startKey;//The key of the config the table was built from
+    private final LongHashIndex keys;//Every reachable key
+    private final byte[] distances;//The distance of each key, by index, unsigned with 255 as unsolvable
+
+    /**
+     * Create a table from its parts
+     * @param fingerprint The key fingerprint of the config the table was built from
+     * @param startKey The key of the config the table was built from
+     * @param keys Every reachable key
+     * @param distances The distance of each key
+     */
+    private DistanceTable(long fingerprint, long startKey, LongHashIndex keys, byte[] distances){
+        this.fingerprint = fingerprint;
+        this.startKey = startKey;
+        this.keys = keys;
+        this.distances = distances;
+    }
+
+    /**
+     * Build the table of every configuration reachable from a start configuration
+     * @param startConfig The starting configuration, its puzzle's moves must all be reversible
+     * @return table The distance table
+     */
+    public static DistanceTable build(KeyedConfiguration startConfig){
+        //Enumerate everything reachable, remembering which configs are solutions
+        LongHashIndex keys = new LongHashIndex();
+        keys.add(startConfig.getKey());
+        int[] queue = new int[16];//Solutions first, then configs in order of distance
+        int tail = 0;
+        for(int head = 0; head < keys.size(); head++){
+            KeyedConfiguration config = startConfig.fromKey(keys.key(head));
+            if(config.isSolution()){
+                if(tail == queue.length){
+                    queue = Arrays.copyOf(queue, LongHashIndex.grow(queue.length));
+                }
+                queue[tail++] = head;
+            }
+            config.forEachNeighborKey(keys::add);
+        }
+
+        //Retrograde BFS from every solution at once
+        Retrograde retrograde = new Retrograde(keys, Arrays.copyOf(queue, keys.size()), tail);
+        for(int head = 0; head < retrograde.tail; head++){
+            int index = retrograde.queue[head];
+            int distance = (retrograde.distances[index] & 0xFF) + 1;
+            if(distance > MAX_DISTANCE){
+                throw new IllegalStateException("solutions more than " + MAX_DISTANCE + " moves long can't be stored");
+            }
+            retrograde.distance = (byte) distance;
+            startConfig.fromKey(keys.key(index)).forEachNeighborKey(retrograde);
+        }
+        return new DistanceTable(startConfig.keyFingerprint(), startConfig.getKey(), keys, retrograde.distances);
+    }
+
+    /**
+     * The state of the retrograde BFS, which takes the keys of the neighbors of the config being stepped back from
+     */
+    private static final class Retrograde implements LongConsumer {
+        private final LongHashIndex keys;//Every reachable key
+        private final byte[] distances;//The distance of each key found so far, by index
+        private final int[] queue;//The indexes of the configs in order of distance
+        private int tail;//The number of indexes in the queue
+        private byte distance;//The distance of neighbors found from the config being stepped back from
+
+        /**
+         * Start the retrograde BFS from the solutions
+         * @param keys Every reachable key
+         * @param queue The indexes of the solutions, with room for every key
+         * @param solutions The number of solutions
+         */
+        Retrograde(LongHashIndex keys, int[] queue, int solutions){
+            this.keys = keys;
+            this.queue = queue;
+            this.tail = solutions;
+            this.distances = new byte[keys.size()];
+            Arrays.fill(distances, (byte) UNSOLVABLE);
+            for(int i = 0; i < solutions; i++){
+                distances[queue[i]] = 0;
+            }
+        }
+
+        /**
+         * Give a neighbor its distance if it doesn't have one yet
+         * @param key The key of the neighbor
+         */
+        @Override
+        public void accept(long key){
+            int index = keys.indexOf(key);
+            if(distances[index] == UNSOLVABLE){
+                distances[index] = distance;
+                queue[tail++] = index;
+            }
+        }
+    }
+
+    /**
+     * Get the number of moves to a solution
+     * @param config A configuration of the same puzzle
+     * @return distance The number of moves, UNSOLVABLE if no solution can be reached, UNKNOWN if the
+     * configuration is not in the table
+     */
+    public int distance(KeyedConfiguration config){
+        int index = keys.indexOf(config.getKey());
+        if(index == -1){
+            return UNKNOWN;
+        }
+        return distances[index] == UNSOLVABLE ? UNSOLVABLE : distances[index] & 0xFF;
+    }
+
+    /**
+     * Get the next configuration on a shortest path to a solution
+     * @param config A configuration of the same puzzle
+     * @return next The neighbor one move closer to a solution, null if the configuration is a solution,
+     * unsolvable or not in the table
+     */
+    public Configuration next(KeyedConfiguration config){
+        int distance = distance(config);
+        if(distance <= 0){
+            return null;
+        }
+        for(Configuration c : config.getNeighbors()){
+            if(distance((KeyedConfiguration) c) == distance - 1){
+                return c;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the key of the configuration the table was built from
+     * @return startKey The key of the start config
+     */
+    public long getStartKey(){
+        return startKey;
+    }
+
+    /**
+     * Check if the table was built from a configuration, which needs both the same key and the same
+     * fingerprint since the same key can stand for another configuration of a different puzzle
+     * @param config A configuration with a key
+     * @return builtFrom If the table was built from that configuration
+     */
+    public boolean builtFrom(KeyedConfiguration config){
+        return fingerprint == config.keyFingerprint() && startKey == config.getKey();
+    }
+
+    /**
+     * Get the number of configurations in the table
+     * @return size The number of reachable configurations
+     */
+    public int size(){
+        return keys.size();
+    }
+
+    /**
+     * Get the key of a configuration in the table
+     * @param index The index of the configuration, from 0 to size - 1
+     * @return key The key of the configuration
+     */
+    public long key(int index){
+        return keys.key(index);
+    }
+
+    /**
+     * Get the number of moves to a solution of a configuration in the table
+     * @param index The index of the configuration, from 0 to size - 1
+     * @return distance The number of moves, UNSOLVABLE if no solution can be reached
+     */
+    public int distance(int index){
+        return distances[index] == UNSOLVABLE ? UNSOLVABLE : distances[index] & 0xFF;
+    }
+
+    /**
+     * Write the table to a binary file: a magic number, the key fingerprint, the start key, the number of
+     * configurations, every key and then one byte per distance
+     * @param filename The file to write
+     * @throws IOException If the file can't be written
+     */
+    public void write(String filename) throws IOException{
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))){
+            out.writeInt(MAGIC);
+            out.writeLong(fingerprint);
+            out.writeLong(startKey);
+            out.writeInt(keys.size());
+            for(int i = 0; i < keys.size(); i++){
+                out.writeLong(keys.key(i));
+            }
+            out.write(distances);
+        }
+    }
+
+    /**
+     * Read a table written by write
+     * @param filename The file to read
+     * @return table The distance table
+     * @throws IOException If the file can't be read or is not a table
+     */
+    public static DistanceTable read(String filename) throws IOException{
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)))){
+            if(in.readInt() != MAGIC){
+                throw new IOException(filename + " is not a distance table");
+            }
+            long fingerprint = in.readLong();
+            long startKey = in.readLong();
+            int size = in.readInt();
+            LongHashIndex keys = new LongHashIndex(size);
+            for(int i = 0; i < size; i++){
+                keys.add(in.readLong());
+            }
+            byte[] distances = new byte[size];
+            in.readFully(distances);
+            return new DistanceTable(fingerprint, startKey, keys, distances);
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package puzzles.common.solver;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A BFS solver for searches that don't fit in the heap. Configurations are stored as their 8 byte keys
+ * in files, one sorted file per level of the search, which are memory mapped to be read back.
+ * Neighbors of a level are collected in a fixed size buffer that is sorted and written out as a run
+ * every time it fills up. Once the level is expanded the runs are merged, and every key that is already
+ * in an earlier level is dropped while merging, so duplicates are only detected in one sequential pass
+ * per level instead of with a lookup per neighbor. No predecessors are stored; the path is found
+ * afterwards by walking the levels backwards, looking for a config one level up that has the current
+ * config as a neighbor. The path has the same length as the sequential solver's, but may be a different one.
+ */
+public class ExternalSolver extends Solver {
+    private static final int KEY_BYTES = Long.BYTES;//Every key is stored in this many bytes
+    private static final int SEGMENT_KEYS = 1 << 24;//Most keys mapped from a file at once, 128 MB
+
+    private final Path directory;//Where the level and run files are written
+    private final int bufferKeys;//The number of neighbor keys held in the heap before writing a run
+
+    /**
+     * Create an ExternalSolver writing to the temporary directory with a 32 MB buffer
+     */
+    public ExternalSolver(){
+        this(Path.of(System.getProperty("java.io.tmpdir")), 1 << 22);
+    }
+
+    /**
+     * Create an ExternalSolver
+     * @param directory The directory to write the search's files in, they are deleted once it is done
+     * @param bufferKeys The number of neighbor keys kept in the heap before they are sorted and written
+     */
+    public ExternalSolver(Path directory, int bufferKeys){
+        if(bufferKeys < 1){
+            throw new IllegalArgumentException("bufferKeys must be at least 1");
+        }
+        this.directory = directory;
+        this.bufferKeys = bufferKeys;
+    }
+
+    /**
+     * Method to execute a Breadth First Search with the visited configurations kept on disk
+     * @param startConfig The starting configuration, it must be keyed
+     * @return path The path from the start config to target config
+     */
+    @Override
+    public Iterable<Configuration> solve(Configuration startConfig){
+        if(!(startConfig instanceof KeyedConfiguration start) || !start.hasKey()){
+            throw new IllegalArgumentException("the external solver needs a keyed configuration");
+        }
+        searchStarted();
+        Path files = null;
+        try{
+            files = Files.createTempDirectory(directory, "bfs");
+            List<Path> levels = new ArrayList<>();
+            levels.add(write(files.resolve("level-0"), new long[]{start.getKey()}, 1));
+            uniqueConfigs++;
+            totalConfigs++;
+
+            //Expand one level at a time, the first solution found ends the search
+            while(true){
+                Path level = levels.get(levels.size() - 1);
+                List<Path> runs = new ArrayList<>();
+                long[] buffer = new long[bufferKeys];
+                int buffered = 0;//The number of keys in the buffer
+                try(KeyReader reader = new KeyReader(level)){
+                    while(reader.hasNext()){
+                        KeyedConfiguration config = start.fromKey(reader.next());
+                        if(config.isSolution()){
+                            searchFinished(levels.size() - 1, reader.count - reader.position + 1);
+                            return path(start, levels, config);
+                        }
+                        expandedConfigs++;
+                        checkBudget();
+                        for(Configuration c : config.getNeighbors()){
+                            totalConfigs++;
+                            if(buffered == buffer.length){
+                                runs.add(run(files, levels.size(), runs.size(), buffer, buffered));
+                                buffered = 0;
+                            }
+                            buffer[buffered++] = ((KeyedConfiguration) c).getKey();
+                        }
+                    }
+                }
+                if(buffered > 0){
+                    runs.add(run(files, levels.size(), runs.size(), buffer, buffered));
+                }
+                Path next = merge(files.resolve("level-" + levels.size()), runs, levels);
+                for(Path run : runs){
+                    Files.delete(run);
+                }
+                long found = Files.size(next) / KEY_BYTES;
+                uniqueConfigs += found;
+                if(found == 0){
+                    searchFinished(levels.size() - 1, 0);
+                    return null;//Every reachable config was visited with no solution being found
+                }
+                levelFinished(levels.size() - 1, found);
+                levels.add(next);
+            }
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }finally{
+            delete(files);
+        }
+    }
+
+    /**
+     * Sort and dedupe a buffer of keys and write it out as a run
+     * @param files The search's directory
+     * @param level The level the keys are candidates for
+     * @param number The number of runs written so far for the level
+     * @param buffer The keys
+     * @param length The number of keys in the buffer
+     * @return run The run file
+     * @throws IOException If the run can't be written
+     */
+    private static Path run(Path files, int level, int number, long[] buffer, int length) throws IOException{
+        Arrays.sort(buffer, 0, length);
+        int unique = 0;
+        for(int i = 0; i < length; i++){
+            if(unique == 0 || buffer[i] != buffer[unique - 1]){
+                buffer[unique++] = buffer[i];
+            }
+        }
+        return write(files.resolve("run-" + level + "-" + number), buffer, unique);
+    }
+
+    /**
+     * Merge the runs of a level into the level's file, dropping keys that are in an earlier level
+     * @param file The level file to write
+     * @param runs The sorted runs
+     * @param levels The files of the earlier levels
+     * @return file The level file, holding every new key in order
+     * @throws IOException If a file can't be read or written
+     */
+    private static Path merge(Path file, List<Path> runs, List<Path> levels) throws IOException{
+        PriorityQueue<KeyReader> heads = new PriorityQueue<>((a, b) -> Long.compare(a.peek(), b.peek()));
+        List<KeyReader> readers = new ArrayList<>();//Every open reader, to be closed at the end
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile()), 1 << 16))){
+            for(Path run : runs){
+                KeyReader reader = new KeyReader(run);
+                readers.add(reader);
+                if(reader.hasNext()){
+                    heads.add(reader);
+                }
+            }
+            List<KeyReader> previous = new ArrayList<>();
+            for(Path level : levels){
+                KeyReader reader = new KeyReader(level);
+                readers.add(reader);
+                previous.add(reader);
+            }
+            boolean first = true;
+            long last = 0;
+            while(!heads.isEmpty()){
+                KeyReader head = heads.remove();
+                long key = head.next();
+                if(head.hasNext()){
+                    heads.add(head);
+                }
+                if(!first && key == last){
+                    continue;//Also in another run
+                }
+                first = false;
+                last = key;
+                if(!contains(previous, key)){
+                    out.writeLong(key);
+                }
+            }
+        }finally{
+            for(KeyReader reader : readers){
+                reader.close();
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Determine if a key is in any earlier level. Keys are checked in increasing order, so each level's
+     * reader only ever moves forward.
+     * @param previous Readers of the earlier levels
+     * @param key The key, larger than any key checked before
+     * @return contains If the key was in an earlier level
+     */
+    private static boolean contains(List<KeyReader> previous, long key){
+        for(KeyReader reader : previous){
+            while(reader.hasNext() && reader.peek() < key){
+                reader.next();
+            }
+            if(reader.hasNext() && reader.peek() == key){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Walk the levels backwards from a solution, finding a predecessor of each config in the level before it
+     * @param start The starting configuration
+     * @param levels The files of the levels, the solution is in the last one
+     * @param solution The solution that was found
+     * @return path The path from the start config to the solution
+     * @throws IOException If a level can't be read
+     */
+    private static SolutionPath path(KeyedConfiguration start, List<Path> levels, KeyedConfiguration solution) throws IOException{
+        Configuration[] path = new Configuration[levels.size()];
+        path[levels.size() - 1] = solution;
+        long target = solution.getKey();
+        for(int level = levels.size() - 2; level >= 0; level--){
+            try(KeyReader reader = new KeyReader(levels.get(level))){
+                KeyedConfiguration predecessor = null;
+                while(predecessor == null && reader.hasNext()){
+                    KeyedConfiguration config = start.fromKey(reader.next());
+                    for(Configuration c : config.getNeighbors()){
+                        if(((KeyedConfiguration) c).getKey() == target){
+                            predecessor = config;
+                            break;
+                        }
+                    }
+                }
+                path[level] = predecessor;
+                target = predecessor.getKey();
+            }
+        }
+        return new SolutionPath(path.length, step -> path[step]);
+    }
+
+    /**
+     * Write keys to a file
+     * @param file The file
+     * @param keys The keys
+     * @param length The number of keys to write
+     * @return file The file that was written
+     * @throws IOException If the file can't be written
+     */
+    private static Path write(Path file, long[] keys, int length) throws IOException{
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile()), 1 << 16))){
+            for(int i = 0; i < length; i++){
+                out.writeLong(keys[i]);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Delete the search's directory and everything in it
+     * @param files The directory, may be null
+     */
+    private static void delete(Path files){
+        if(files == null){
+            return;
+        }
+        try(var paths = Files.list(files)){
+            for(Path path : (Iterable<Path>) paths::iterator){
+                Files.deleteIfExists(path);
+            }
+            Files.deleteIfExists(files);
+        }catch(IOException ignored){
+            //Left behind in the temporary directory
+        }
+    }
+
+    /**
+     * Measure what the search keeps, which is on disk rather than in the heap
+     * @return bytes The keys of the level files and the neighbor buffer
+     */
+    @Override
+    protected long visitedBytes(){
+        return KEY_BYTES * (uniqueConfigs + bufferKeys);
+    }
+
+    /**
+     * Reads the keys of a file in order, mapping at most SEGMENT_KEYS of them into memory at once
+     */
+    private static class KeyReader implements AutoCloseable {
+        private final FileChannel channel;//The open file
+        private final long count;//The number of keys in the file
+        private long position;//The index of the next key
+        private LongBuffer segment;//The mapped keys around the next key
+
+        /**
+         * Open a key file
+         * @param file The file
+         * @throws IOException If the file can't be opened
+         */
+        KeyReader(Path file) throws IOException{
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            count = channel.size() / KEY_BYTES;
+        }
+
+        /**
+         * @return hasNext If there are keys left
+         */
+        boolean hasNext(){
+            return position < count;
+        }
+
+        /**
+         * @return key The next key, without moving past it
+         */
+        long peek(){
+            if(segment == null || !segment.hasRemaining()){
+                try{
+                    long keys = Math.min(SEGMENT_KEYS, count - position);
+                    segment = channel.map(FileChannel.MapMode.READ_ONLY, position * KEY_BYTES, keys * KEY_BYTES).asLongBuffer();
+                }catch(IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return segment.get(segment.position());
+        }
+
+        /**
+         * @return key The next key
+         */
+        long next(){
+            long key = peek();
+            segment.position(segment.position() + 1);
+            position++;
+            return key;
+        }
+
+        @Override
+        public void close() throws IOException{
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package puzzles.common.solver;
+
+/**
+ * A configuration that can estimate how far away it is from a solution.
+ * The A* solver expands the configurations with the smallest moves so far plus estimate first. The
+ * estimate must never be more than the real number of moves left, or the path found may not be the shortest.
+ */
+public interface HeuristicConfiguration extends Configuration {
+    /**
+     * Estimate the number of moves left to reach a solution, without ever overestimating it.
+     * @return the estimate; 0 for a solution
+     */
+    int estimate();
+}
@@ -0,0 +1,128 @@
+package puzzles.common.solver;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * The hint searches of one game. A hint is the next config on a shortest path, taken from the solved paths
+ * of the puzzle when the config is on one and found by an A* search limited to the hint budget otherwise.
+ * Searches can run on this thread or in the background, and asking for a hint cancels the search of the
+ * hint before it, whose result is then dropped.
+ * @param <C> the type of the game's configs
+ */
+public class HintSearch<C extends Configuration> {
+    /**
+     * The outcome of a hint
+     * @param next The config one move closer to a solution, null if there is none
+     * @param failure Why there is no next config
+     * @param <C> the type of the game's configs
+     */
+    public record Hint<C>(C next, String failure) {}
+
+    /**
+     * The thread hint searches run on when the caller can't wait for them
+     */
+    private static final ExecutorService SEARCHES = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hints");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SolutionCache solved;//The solved paths of the puzzle, shared by every game of it
+    private final String noSolution;//The failure when no solution can be reached
+    private final String solution;//The failure when the config already is a solution
+    private Solver search;//The latest hint search, null if there was none
+
+    /**
+     * Create the hint searches of a game
+     * @param solved The solved paths of the puzzle, every search records its path in it
+     * @param noSolution The failure of a hint when no solution can be reached
+     * @param solution The failure of a hint when the config already is a solution
+     */
+    public HintSearch(SolutionCache solved, String noSolution, String solution){
+        this.solved = solved;
+        this.noSolution = noSolution;
+        this.solution = solution;
+    }
+
+    /**
+     * Get a hint that needs no search
+     * @param from The config to get the hint for
+     * @return hint The hint from a path solved before, null if the config is on none
+     */
+    @SuppressWarnings("unchecked")
+    public Hint<C> known(C from){
+        SolutionCache.Step step = solved.get(from);
+        if(step == null){
+            return null;
+        }
+        return new Hint<>((C) step.next(), solution);
+    }
+
+    /**
+     * Search for a hint on this thread
+     * @param from The config to get the hint for
+     * @return hint The hint
+     */
+    public Hint<C> search(C from){
+        return search(from, newSearch());
+    }
+
+    /**
+     * Search for a hint in the background. The hint is handed to the game through the callback executor,
+     * unless another hint was asked for since
+     * @param from The config to get the hint for
+     * @param callback Runs the code that applies the hint, on the thread that owns the game
+     * @param apply Applies the hint to the game
+     */
+    public void search(C from, Executor callback, Consumer<Hint<C>> apply){
+        Solver solver = newSearch();
+        SEARCHES.execute(() -> {
+            Hint<C> hint = search(from, solver);
+            callback.execute(() -> {
+                if(solver == search){
+                    apply.accept(hint);
+                }
+            });
+        });
+    }
+
+    /**
+     * Create the solver for a hint search, cancelling the one before it
+     * @return solver The solver, limited to the hint budget
+     */
+    private Solver newSearch(){
+        if(search != null){
+            search.cancel();
+        }
+        search = new AStarSolver();
+        search.setBudget(SolveBudget.HINT);
+        return search;
+    }
+
+    /**
+     * Search for the next config, remembering the solved path. Only touches thread safe state
+     * @param from The config to search from
+     * @param solver The solver to search with
+     * @return hint The hint
+     */
+    @SuppressWarnings("unchecked")
+    private Hint<C> search(C from, Solver solver){
+        try{
+            Iterable<Configuration> path = solver.solve(from);
+            if(path == null){
+                return new Hint<>(null, noSolution);
+            }
+            solved.record(path);
+            //The second step comes from the path itself, the shared cache may have dropped it already
+            Iterator<Configuration> steps = path.iterator();
+            steps.next();
+            return new Hint<>(steps.hasNext() ? (C) steps.next() : null, solution);
+        }catch(SolveAbortedException e){
+            return new Hint<>(null, "No hint, " + e.getMessage());
+        }
+    }
+}
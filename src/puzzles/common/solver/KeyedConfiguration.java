@@ -0,0 +1,54 @@
+package puzzles.common.solver;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A configuration that can be squeezed into a single long key.
+ * When the starting configuration of a puzzle implements this interface the BFS solver remembers
+ * visited configurations by their keys only, and rebuilds a configuration from its key when it has
+ * to be expanded. Two configurations of the same puzzle must have the same key if and only if they
+ * are equal.
+ */
+public interface KeyedConfiguration extends Configuration {
+    /**
+     * Can this configuration be keyed? Some puzzles only fit into a long up to a certain size.
+     * @return true if getKey and fromKey may be used; false, otherwise
+     */
+    default boolean hasKey() {
+        return true;
+    }
+
+    /**
+     * Get the key of the current configuration.
+     * @return the key
+     */
+    long getKey();
+
+    /**
+     * Identify what the keys of this configuration stand for, i.e. the parts of the puzzle that are left out
+     * of the key, like the size of the board or the pieces that never move. Keys saved to a file are only
+     * used again for a configuration with the same fingerprint, so a file written for one puzzle is never
+     * taken for another whose keys happen to look the same.
+     * @return the fingerprint, 0 by default for puzzles whose keys mean the same for every configuration
+     */
+    default long keyFingerprint() {
+        return 0;
+    }
+
+    /**
+     * Rebuild a configuration of the same puzzle from a key.
+     * @param key a key that came from getKey on a configuration of the same puzzle
+     * @return the configuration with that key
+     */
+    KeyedConfiguration fromKey(long key);
+
+    /**
+     * Hand the key of each neighbor to an action, in the same order as getNeighbors. Searches that only
+     * need to know which keys are new use this, so a puzzle that can work out a neighbor's key from its
+     * own state doesn't have to create the neighbor at all. By default each neighbor is created and keyed.
+     * @param action what to do with each neighbor's key
+     */
+    default void forEachNeighborKey(LongConsumer action) {
+        forEachNeighbor(neighbor -> action.accept(((KeyedConfiguration) neighbor).getKey()));
+    }
+}
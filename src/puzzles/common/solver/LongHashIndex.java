@@ -0,0 +1,139 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * An insertion ordered set of longs that gives each added key a dense index (0, 1, 2, ...).
+ * Keys are kept in one long array in the order they were added and an open addressing table of
+ * ints points into it, so each key costs 8 bytes plus a few table slots and nothing is boxed.
+ */
+public class LongHashIndex {
+    private static final float LOAD_FACTOR = 0.5f;//How full the table may get before it grows
+
+    private long[] keys;//The keys in the order they were added
+    private int[] table;//Open addressing table holding index + 1 of a key, 0 is an empty slot
+    private int size;//Number of keys added
+    private int shift;//64 - log2(table length), used to take the top bits of the hash
+
+    /**
+     * Create an empty index
+     */
+    public LongHashIndex(){
+        this(16);
+    }
+
+    /**
+     * Create an empty index that can hold the given amount of keys without growing
+     * @param expected The expected number of keys
+     */
+    public LongHashIndex(int expected){
+        int capacity = 16;
+        while(capacity * LOAD_FACTOR < expected && capacity < 1 << 30){
+            capacity <<= 1;
+        }
+        keys = new long[Math.max(16, expected)];
+        table = new int[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    /**
+     * Add a key to the index
+     * @param key The key to be added
+     * @return The new index of the key, or -1 if the key was already added
+     */
+    public int add(long key){
+        int slot = slot(key);
+        while(table[slot] != 0){
+            if(keys[table[slot] - 1] == key){
+                return -1;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        if(size == keys.length){
+            keys = Arrays.copyOf(keys, grow(keys.length));
+        }
+        keys[size] = key;
+        table[slot] = ++size;
+        if(size > table.length * LOAD_FACTOR){
+            rehash();
+        }
+        return size - 1;
+    }
+
+    /**
+     * Get the index of a key
+     * @param key The key to look for
+     * @return The index of the key, or -1 if it was never added
+     */
+    public int indexOf(long key){
+        int slot = slot(key);
+        while(table[slot] != 0){
+            if(keys[table[slot] - 1] == key){
+                return table[slot] - 1;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Get the key that was given a certain index
+     * @param index The index of the key
+     * @return The key
+     */
+    public long key(int index){
+        return keys[index];
+    }
+
+    /**
+     * Get the number of keys in the index
+     * @return size The number of keys
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Get the amount of heap used by the index's arrays
+     * @return The approximate size of the index in bytes
+     */
+    public long bytes(){
+        return 8L * keys.length + 4L * table.length;
+    }
+
+    /**
+     * Find the home slot of a key by taking the top bits of a fibonacci hash
+     * @param key The key
+     * @return The slot in the table to start probing from
+     */
+    private int slot(long key){
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    /**
+     * Double the table and put every key back into it
+     */
+    private void rehash(){
+        if(table.length == 1 << 30){
+            throw new IllegalStateException("LongHashIndex cannot hold more than " + size + " keys");
+        }
+        table = new int[table.length << 1];
+        shift--;
+        for(int i = 0; i < size; i++){
+            int slot = slot(keys[i]);
+            while(table[slot] != 0){
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    /**
+     * Get the next length of a growing array
+     * @param length The current length
+     * @return The new length
+     */
+    static int grow(int length){
+        return (int) Math.min(Integer.MAX_VALUE - 8, length + (long) (length >> 1) + 16);
+    }
+}
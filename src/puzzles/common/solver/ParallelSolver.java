@@ -0,0 +1,97 @@
+package puzzles.common.solver;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A BFS solver that expands a whole level of the search at a time on a fork join pool.
+ * All the configurations of one level are expanded in parallel and their neighbors are deduplicated
+ * into a concurrent predecessors map, the next level is everything that got added to it. Since levels
+ * are finished one at a time, the first level that has a solution in it gives a shortest path, just like
+ * the sequential solver, although it may be a different path of the same length.
+ */
+public class ParallelSolver extends Solver {
+    private final int threads;//Number of threads expanding a level
+
+    /**
+     * Create a ParallelSolver that uses one thread per available processor
+     */
+    public ParallelSolver(){
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a ParallelSolver
+     * @param threads Number of threads expanding each level
+     */
+    public ParallelSolver(int threads){
+        if(threads < 1){
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Method to execute a level synchronous Breadth First Search
+     * @param startConfig The starting configuration
+     * @return path The path from the start config to target config
+     */
+    @Override
+    public Iterable<Configuration> solve(Configuration startConfig){
+        ConcurrentHashMap<Configuration,Configuration> predecessors = new ConcurrentHashMap<>();
+        searchStarted();
+        AtomicLong total = new AtomicLong(1);//Generated configs, counted from every thread
+        predecessors.put(startConfig, startConfig);//The start is its own predecessor, the map can't hold null
+        List<Configuration> level = List.of(startConfig);
+        int depth = 0;//The number of moves to the configs of the level
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try{
+            while(!level.isEmpty()){
+                //The first solution in the level, if any, is at the end of a shortest path
+                for(Configuration config : level){
+                    if(config.isSolution()){
+                        totalConfigs = total.get();
+                        uniqueConfigs = predecessors.size();
+                        searchFinished(depth, level.size());
+                        return path(predecessors, config);
+                    }
+                }
+                List<Configuration> current = level;
+                level = pool.submit(() -> current.parallelStream()
+                        .flatMap(config -> {
+                            Collection<Configuration> neighbors = config.getNeighbors();
+                            total.addAndGet(neighbors.size());
+                            //Only the thread that adds a neighbor to the map first puts it in the next level
+                            return neighbors.stream().filter(neighbor -> predecessors.putIfAbsent(neighbor, config) == null);
+                        })
+                        .toList()).join();
+                expandedConfigs += current.size();
+                totalConfigs = total.get();
+                uniqueConfigs = predecessors.size();
+                levelFinished(depth++, level.size());
+                checkBudget();
+            }
+        }finally{
+            pool.shutdown();
+        }
+        totalConfigs = total.get();
+        uniqueConfigs = predecessors.size();
+        searchFinished(depth, 0);
+        return null;//Every level was expanded with no solution being found
+    }
+
+    /**
+     * Follow the predecessors back from the end config to the start config
+     * @param predecessors Map of each config to the config it came from
+     * @param endConfig The solution
+     * @return path The path from the start config to the end config
+     */
+    private static Iterable<Configuration> path(ConcurrentHashMap<Configuration,Configuration> predecessors,
+                                                Configuration endConfig){
+        //The start is the only config that is its own predecessor
+        return SolutionPath.backwards(endConfig, config -> predecessors.get(config) == config ? null : predecessors.get(config));
+    }
+}
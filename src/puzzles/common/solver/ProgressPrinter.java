@@ -0,0 +1,47 @@
+package puzzles.common.solver;
+
+import java.io.PrintStream;
+
+/**
+ * A SolverListener that prints a progress line at most once per interval, and a summary at the end.
+ */
+public class ProgressPrinter implements SolverListener {
+    private final PrintStream out;//Where the lines are printed
+    private final long interval;//The fewest nanoseconds between two progress lines
+    private long printed;//When the last progress line was printed, in search nanoseconds
+
+    /**
+     * Create a ProgressPrinter that prints to standard error every second
+     */
+    public ProgressPrinter(){
+        this(System.err, 1_000_000_000L);
+    }
+
+    /**
+     * Create a ProgressPrinter
+     * @param out Where to print
+     * @param interval The fewest nanoseconds between two progress lines
+     */
+    public ProgressPrinter(PrintStream out, long interval){
+        this.out = out;
+        this.interval = interval;
+    }
+
+    @Override
+    public void levelFinished(SolverStats stats){
+        if(stats.nanos() - printed >= interval){
+            printed = stats.nanos();
+            out.printf("depth %d: frontier %,d, unique %,d, %,.0f expanded/s, %.1f%% duplicates, %.0f B/state%n",
+                    stats.depth(), stats.frontier(), stats.unique(), stats.perSecond(),
+                    stats.duplicateRate() * 100, stats.bytesPerState());
+        }
+    }
+
+    @Override
+    public void solveFinished(SolverStats stats){
+        out.printf("reached depth %d in %.3f s: expanded %,d, generated %,d, unique %,d, %,.0f expanded/s, " +
+                        "%.1f%% duplicates, %,d bytes, %.0f B/state%n",
+                stats.depth(), stats.nanos() / 1e9, stats.expanded(), stats.generated(), stats.unique(),
+                stats.perSecond(), stats.duplicateRate() * 100, stats.bytes(), stats.bytesPerState());
+    }
+}
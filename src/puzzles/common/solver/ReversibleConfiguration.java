@@ -0,0 +1,30 @@
+package puzzles.common.solver;
+
+import java.util.Collection;
+
+/**
+ * A configuration whose puzzle knows its solutions up front and can step backwards.
+ * The bidirectional solver searches forward from the start and backward from the goals at the same
+ * time, so implementing this interface lets a puzzle be solved without exploring as many configurations.
+ */
+public interface ReversibleConfiguration extends Configuration {
+    /**
+     * Can this puzzle be searched backwards? Puzzles may only know their exact predecessors for some inputs.
+     * @return true if getGoals and getPredecessors may be used; false, otherwise
+     */
+    default boolean isReversible() {
+        return true;
+    }
+
+    /**
+     * Get every solution of the puzzle.
+     * @return All the solution configurations
+     */
+    Collection<Configuration> getGoals();
+
+    /**
+     * Get the collection of configurations that have the current configuration as one of their neighbors.
+     * @return All the predecessors
+     */
+    Collection<Configuration> getPredecessors();
+}
@@ -0,0 +1,76 @@
+package puzzles.common.solver;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of solved paths, shared by every game of a puzzle. For each configuration on a solved
+ * path it remembers the next configuration towards the solution and how many moves are left, so a hint
+ * from any configuration that was already on a solved path doesn't need a new search. When the cache is
+ * full the least recently used configuration is forgotten. All methods are thread safe.
+ */
+public class SolutionCache {
+    /**
+     * What the cache knows about a configuration
+     * @param next The next configuration on a shortest path, null if the configuration is a solution
+     * @param distance The number of moves left to a solution
+     */
+    public record Step(Configuration next, int distance) {}
+
+    private final LinkedHashMap<Configuration,Step> steps;//Each config and its step, in least recently used order
+
+    /**
+     * Create an empty cache
+     * @param capacity The most configurations the cache will remember
+     */
+    public SolutionCache(int capacity){
+        this.steps = new LinkedHashMap<>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Configuration,Step> eldest){
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Get the step of a configuration
+     * @param config The configuration
+     * @return step The next configuration and distance, null if the configuration was never on a solved path
+     */
+    public synchronized Step get(Configuration config){
+        return steps.get(config);
+    }
+
+    /**
+     * Remember every configuration on a shortest path to a solution. Every part of a shortest path is a
+     * shortest path too, so each configuration's next config and distance are exact.
+     * @param path The path from a start config to a solution
+     */
+    public synchronized void record(Iterable<Configuration> path){
+        int length = 0;
+        if(path instanceof SolutionPath solution){
+            length = solution.length();
+        }else{
+            for(Configuration ignored : path){
+                length++;
+            }
+        }
+        Iterator<Configuration> iterator = path.iterator();
+        Configuration config = iterator.next();
+        for(int distance = length - 1; distance > 0; distance--){
+            Configuration next = iterator.next();
+            steps.put(config, new Step(next, distance));
+            config = next;
+        }
+        steps.put(config, new Step(null, 0));
+    }
+
+    /**
+     * Get the number of configurations in the cache
+     * @return size The number of configurations remembered
+     */
+    public synchronized int size(){
+        return steps.size();
+    }
+}
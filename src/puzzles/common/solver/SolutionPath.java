@@ -0,0 +1,86 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * The path a solver found, from the start configuration to a solution. The steps are handed out one at a
+ * time as the path is iterated, so a solver only has to remember how to get each step and not build a
+ * list of them. Solvers that store configurations as keys rebuild each one only when it is reached.
+ */
+public class SolutionPath implements Iterable<Configuration> {
+    private final int length;//The number of configurations on the path, including the start and the solution
+    private final IntFunction<Configuration> steps;//Gets the configuration at each step, 0 being the start
+
+    /**
+     * Create a path
+     * @param length The number of configurations on the path
+     * @param steps Gets the configuration at a step, from 0 to length - 1
+     */
+    public SolutionPath(int length, IntFunction<Configuration> steps){
+        this.length = length;
+        this.steps = steps;
+    }
+
+    /**
+     * Create a path by following links back from its end
+     * @param end The solution at the end of the path
+     * @param previous Gets the configuration before a configuration, null for the start
+     * @return path The path from the start to the end
+     */
+    public static SolutionPath backwards(Configuration end, UnaryOperator<Configuration> previous){
+        ArrayList<Configuration> reversed = new ArrayList<>();//The path from the end to the start
+        for(Configuration config = end; config != null; config = previous.apply(config)){
+            reversed.add(config);
+        }
+        int last = reversed.size() - 1;
+        return new SolutionPath(reversed.size(), step -> reversed.get(last - step));
+    }
+
+    /**
+     * Get the number of configurations on the path
+     * @return length The number of configurations, one more than the number of moves
+     */
+    public int length(){
+        return length;
+    }
+
+    /**
+     * Get a step of the path
+     * @param step The step, 0 being the start config and length - 1 the solution
+     * @return config The configuration at that step
+     */
+    public Configuration get(int step){
+        if(step < 0 || step >= length){
+            throw new IndexOutOfBoundsException(step);
+        }
+        return steps.apply(step);
+    }
+
+    /**
+     * Iterate from the start config to the solution
+     * @return iterator The iterator over the steps
+     */
+    @Override
+    public Iterator<Configuration> iterator(){
+        return new Iterator<>(){
+            private int step;//The next step to hand out
+
+            @Override
+            public boolean hasNext(){
+                return step < length;
+            }
+
+            @Override
+            public Configuration next(){
+                if(step == length){
+                    throw new NoSuchElementException();
+                }
+                return steps.apply(step++);
+            }
+        };
+    }
+}
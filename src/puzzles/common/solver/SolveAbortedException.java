@@ -0,0 +1,16 @@
+package puzzles.common.solver;
+
+/**
+ * Thrown by a solver that was cancelled or ran out of its budget before the search was done.
+ */
+public class SolveAbortedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create the exception
+     * @param message Why the search stopped
+     */
+    public SolveAbortedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package puzzles.common.solver;
+
+/**
+ * Limits on how much a single search may do. A solver given a budget stops with a SolveAbortedException
+ * once it finds more configs, runs longer or remembers more bytes than allowed.
+ * @param maxStates The most distinct configs the search may find
+ * @param maxNanos The longest the search may run, in nanoseconds
+ * @param maxBytes The most memory the visited configs may take, measured the same way as SolverStats.bytes
+ */
+public record SolveBudget(long maxStates, long maxNanos, long maxBytes) {
+    /**
+     * A budget that never runs out
+     */
+    public static final SolveBudget UNLIMITED = new SolveBudget(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    /**
+     * A budget for hints in the games: quick enough to wait for and small enough to not take over the heap
+     */
+    public static final SolveBudget HINT = new SolveBudget(2_000_000, 5_000_000_000L, 256L << 20);
+}
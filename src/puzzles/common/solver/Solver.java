@@ -1,6 +1,6 @@
 package puzzles.common.solver;
 
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Queue;
@@ -13,9 +13,26 @@ import java.util.Queue;
 public class Solver {
     HashMap<Configuration,Configuration> predecessors;//HashMap of a configuration and the neighbor it came from
     Queue<Configuration> queue;//The configurations to be visited
+    private LongHashIndex visited;//Every key discovered by the keyed search, in BFS order
+    private int[] parents;//The index of the config each keyed config came from, -1 for the start
+    private long[] realKeys;//The real key of each keyed config when visited holds canonical keys, null otherwise
+    private boolean symmetric;//If configs are remembered by their canonical form
 
-    private int totalConfigs;//Total number of generated configurations
-    private int uniqueConfigs;//Number of unique configs
+    protected long totalConfigs;//Total number of generated configurations
+    protected long uniqueConfigs;//Number of unique configs
+    protected long expandedConfigs;//Number of configs whose neighbors were generated
+    private SolverListener listener;//Told about the search as it runs, null if nobody listens
+    private long startTime;//When the search started, in nanoseconds
+    private SolveBudget budget = SolveBudget.UNLIMITED;//How much the search may do
+    private volatile boolean cancelled;//If the search was asked to stop, from any thread
+    private int sinceChecked;//Configs expanded since the time and memory of the budget were checked
+
+    /**
+     * The estimated memory a search that keeps configuration objects spends on each distinct config: a map
+     * node and its share of the table, a queue entry and a config of a few fields. Configs holding arrays,
+     * like TiltConfig's board, take more, so for them it is a low estimate
+     */
+    protected static final long CONFIG_BYTES = 160;
 
     /**
      * Create a Solver. Initializes the predecessors HashMap and visitation queue
@@ -31,49 +48,259 @@ public class Solver {
      * @return path The path from the start config to target config
      */
     public Iterable<Configuration> solve(Configuration startConfig){
+        searchStarted();
+        visited = null;
+        symmetric = startConfig instanceof SymmetricConfiguration s && s.hasSymmetry();
+        //Puzzles that fit into a long are searched without keeping any configuration objects around
+        if(startConfig instanceof KeyedConfiguration keyed && keyed.hasKey()){
+            return solveKeyed(keyed);
+        }
+
         //Add starting config to the predecessors map and queue, also increase amount of configs
-        predecessors.put(startConfig, null);
+        predecessors.put(form(startConfig), null);
         queue.offer(startConfig);
         uniqueConfigs++;
         totalConfigs++;
 
         //Loops until queue is empty or next config in queue is the solution
+        int depth = 0;//The number of moves to the configs of the level being expanded
+        long levelLeft = 1;//The number of configs of that level still in the queue
         while(!queue.isEmpty() && !queue.peek().isSolution()){
             Configuration thisConfig = queue.remove();//Get the first config in queue
-            Collection<Configuration> neighbors=thisConfig.getNeighbors();//Get the neighbors to the config
-            for(Configuration c : neighbors){
+            expandedConfigs++;
+            checkBudget();
+            thisConfig.forEachNeighbor(c -> {
                 totalConfigs++;//Add neighbor to total configs
-                //If config has not been visited before
-                if(!predecessors.containsKey(c)){
+                //If config, or an image of it, has not been visited before
+                Configuration seen = form(c);
+                if(!predecessors.containsKey(seen)){
                     uniqueConfigs++;//Add to unique config
                     //Add to map and queue
-                    predecessors.put(c, thisConfig);
+                    predecessors.put(seen, thisConfig);
                     queue.offer(c);
                 }
+            });
+            if(--levelLeft == 0){//Everything left in the queue is the next level
+                levelLeft = queue.size();
+                levelFinished(depth++, levelLeft);
             }
         }
 
+        searchFinished(depth, queue.size());
         if(queue.isEmpty()){//Loop ended with no solution being found
             return null;
         }else {
-            LinkedList<Configuration> path = new LinkedList<Configuration>();//The path to be returned
             Configuration endConfig=queue.remove();//Get the next config that would have been the solution
-            path.add(0, endConfig);//Add it to the path
-            //Get the predecessors of the end config and add them to the path
-            Configuration config= predecessors.get(endConfig);
-            while(config!=null){
-                path.add(0,config);
-                config=predecessors.get(config);
+            //The path follows the predecessors of the end config back to the start
+            return SolutionPath.backwards(endConfig, config -> predecessors.get(form(config)));
+        }
+    }
+
+    /**
+     * Breadth First Search over the keys of the configurations. Visited keys are stored in a
+     * LongHashIndex, so every visited configuration only costs its key, a parent index and a few
+     * table slots. Keys get their index in the order they are discovered, which is also the order
+     * a BFS visits them in, so the visitation queue is just a cursor moving through the indexes.
+     * @param startConfig The starting configuration
+     * @return path The path from the start config to target config
+     */
+    private Iterable<Configuration> solveKeyed(KeyedConfiguration startConfig){
+        visited = new LongHashIndex();
+        parents = new int[16];
+        realKeys = symmetric ? new long[16] : null;
+        visited.add(symmetric ? ((SymmetricConfiguration) startConfig).canonicalKey() : startConfig.getKey());
+        parents[0] = -1;
+        if(symmetric){
+            realKeys[0] = startConfig.getKey();
+        }
+        uniqueConfigs++;
+        totalConfigs++;
+
+        //Loops until every discovered config has been visited or the next one is the solution
+        int depth = 0;//The number of moves to the configs of the level being expanded
+        int levelEnd = 1;//The index after the last config of that level
+        for(int head = 0; head < visited.size(); head++){
+            KeyedConfiguration thisConfig = head == 0 ? startConfig : startConfig.fromKey(realKey(head));
+            if(thisConfig.isSolution()){
+                searchFinished(depth, visited.size() - head);
+                //Walk the parents back to the start config, only the indexes are kept and each
+                //config is rebuilt from its key when the path reaches it
+                int length = 1;
+                for(int index = parents[head]; index != -1; index = parents[index]){
+                    length++;
+                }
+                int[] indexes = new int[length];
+                for(int step = length - 1, index = head; index != -1; step--, index = parents[index]){
+                    indexes[step] = index;
+                }
+                KeyedConfiguration endConfig = thisConfig;
+                return new SolutionPath(length, step -> step == indexes.length - 1 ? endConfig :
+                        step == 0 ? startConfig : startConfig.fromKey(realKey(indexes[step])));
+            }
+            int parent = head;
+            //Configs that aren't folded by symmetry are remembered by their keys alone, so neighbors are only keyed
+            if(symmetric){
+                thisConfig.forEachNeighbor(c -> visit(((SymmetricConfiguration) c).canonicalKey(), ((KeyedConfiguration) c).getKey(), parent));
+            }else{
+                thisConfig.forEachNeighborKey(key -> visit(key, key, parent));
+            }
+            expandedConfigs++;
+            checkBudget();
+            if(head + 1 == levelEnd){//Everything discovered after this level is the next level
+                levelEnd = visited.size();
+                levelFinished(depth++, levelEnd - head - 1);
+            }
+        }
+        searchFinished(depth, 0);
+        return null;//Every config was visited with no solution being found
+    }
+
+    /**
+     * Count a neighbor generated by the keyed search, and remember it if it was never visited
+     * @param key The key the neighbor is remembered by, its canonical key if the puzzle is symmetric
+     * @param realKey The neighbor's own key
+     * @param parent The index of the config the neighbor came from
+     */
+    private void visit(long key, long realKey, int parent){
+        totalConfigs++;//Add neighbor to total configs
+        int index = visited.add(key);
+        //If config, or an image of it, has not been visited before
+        if(index != -1){
+            uniqueConfigs++;//Add to unique config
+            if(index == parents.length){
+                parents = Arrays.copyOf(parents, LongHashIndex.grow(parents.length));
+                if(symmetric){
+                    realKeys = Arrays.copyOf(realKeys, parents.length);
+                }
+            }
+            parents[index] = parent;
+            if(symmetric){
+                realKeys[index] = realKey;
+            }
+        }
+    }
+
+    /**
+     * Get the key of the real config the keyed search reached at an index
+     * @param index The index of the config
+     * @return key The key of the config that was reached, not of its canonical form
+     */
+    private long realKey(int index){
+        return symmetric ? realKeys[index] : visited.key(index);
+    }
+
+    /**
+     * Get the form a configuration is remembered by in the predecessors map
+     * @param config The configuration
+     * @return form Its canonical form if the puzzle is symmetric, the configuration itself otherwise
+     */
+    private Configuration form(Configuration config){
+        return symmetric ? ((SymmetricConfiguration) config).canonical() : config;
+    }
+
+    /**
+     * Set who is told about the search as it runs
+     * @param listener The listener, null for none
+     */
+    public void setListener(SolverListener listener){
+        this.listener = listener;
+    }
+
+    /**
+     * Limit how much the search may do
+     * @param budget The budget, UNLIMITED by default
+     */
+    public void setBudget(SolveBudget budget){
+        this.budget = budget;
+    }
+
+    /**
+     * Ask the search to stop. It may be called from any thread; the search throws a
+     * SolveAbortedException from solve the next time it checks its budget.
+     */
+    public void cancel(){
+        cancelled = true;
+    }
+
+    /**
+     * Start timing a search, solvers call this when their solve starts
+     */
+    protected void searchStarted(){
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Stop the search if it was cancelled or went over its budget. Solvers call this once per expanded
+     * config or level; the time and memory are only looked at every 1024 calls since they cost more.
+     * @throws SolveAbortedException If the search has to stop
+     */
+    protected void checkBudget(){
+        if(cancelled){
+            throw new SolveAbortedException("the search was cancelled");
+        }
+        if(uniqueConfigs > budget.maxStates()){
+            throw new SolveAbortedException("the search found more than " + budget.maxStates() + " configs");
+        }
+        if(++sinceChecked >= 1024){
+            sinceChecked = 0;
+            if(System.nanoTime() - startTime > budget.maxNanos()){
+                throw new SolveAbortedException("the search took longer than " + budget.maxNanos() / 1_000_000 + " ms");
             }
-            return path;
+            if(budget.maxBytes() != Long.MAX_VALUE && visitedBytes() > budget.maxBytes()){
+                throw new SolveAbortedException("the search used more than " + budget.maxBytes() + " bytes");
+            }
+        }
+    }
+
+    /**
+     * Tell the listener, if any, that a level of the search is done
+     * @param depth The number of moves to the configs of the level
+     * @param frontier The number of configs in the next level
+     */
+    protected void levelFinished(int depth, long frontier){
+        if(listener != null){
+            listener.levelFinished(stats(depth, frontier));
+        }
+    }
+
+    /**
+     * Tell the listener, if any, that the search is done
+     * @param depth The number of moves to the configs of the last level searched
+     * @param frontier The number of configs that were found but never expanded
+     */
+    protected void searchFinished(int depth, long frontier){
+        if(listener != null){
+            listener.solveFinished(stats(depth, frontier));
+        }
+    }
+
+    /**
+     * Take a snapshot of the search
+     * @param depth The depth of the level
+     * @param frontier The number of configs waiting to be expanded
+     * @return stats The snapshot
+     */
+    private SolverStats stats(int depth, long frontier){
+        return new SolverStats(depth, frontier, expandedConfigs, totalConfigs, uniqueConfigs,
+                System.nanoTime() - startTime, visitedBytes());
+    }
+
+    /**
+     * Measure the memory used to remember the visited configs. Solvers with structures of their own override it
+     * @return bytes Exact for the keyed search's arrays, CONFIG_BYTES for each distinct config found otherwise
+     */
+    protected long visitedBytes(){
+        if(visited != null){
+            return visited.bytes() + 4L * parents.length + (realKeys == null ? 0 : 8L * realKeys.length);
         }
+        return uniqueConfigs * CONFIG_BYTES;
     }
 
     /**
      * Get total num of configs generated
      * @return totalConfigs Number of configurations generated
      */
-    public int getTotalConfigs() {
+    public long getTotalConfigs() {
         return totalConfigs;
     }
 
@@ -81,7 +308,7 @@ public class Solver {
      * Get the number of unique configurations that were generated
      * @return uniqueConfigs -  number of unique configs
      */
-    public int getUniqueConfigs() {
+    public long getUniqueConfigs() {
         return uniqueConfigs;
     }
 }
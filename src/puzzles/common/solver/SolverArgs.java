@@ -0,0 +1,66 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * Reads the command line arguments the puzzle solvers have in common. A trailing --progress prints the
+ * progress of the search to standard error, and is taken off before the puzzle's own arguments are read.
+ */
+public final class SolverArgs {
+    private static final String PROGRESS = "--progress";
+
+    private final String[] args;//The arguments without the trailing --progress
+    private final boolean progress;//If the search's progress is printed
+
+    /**
+     * Create the arguments
+     * @param args The puzzle's own arguments
+     * @param progress If the search's progress is printed
+     */
+    private SolverArgs(String[] args, boolean progress){
+        this.args = args;
+        this.progress = progress;
+    }
+
+    /**
+     * Split the command line into the puzzle's own arguments and the common options
+     * @param args The arguments main was given
+     * @return args The arguments read
+     */
+    public static SolverArgs parse(String[] args){
+        boolean progress = args.length > 0 && args[args.length - 1].equals(PROGRESS);
+        return new SolverArgs(progress ? Arrays.copyOf(args, args.length - 1) : args, progress);
+    }
+
+    /**
+     * Get the puzzle's own arguments
+     * @return args The arguments without the trailing --progress
+     */
+    public String[] args(){
+        return args;
+    }
+
+    /**
+     * Have a solver print its progress to standard error if --progress was given
+     * @param solver The solver about to search
+     */
+    public void listen(Solver solver){
+        if(progress){
+            solver.setListener(new ProgressPrinter());
+        }
+    }
+
+    /**
+     * Read an argument giving the number of threads to solve with
+     * @param arg The argument
+     * @return threads The number of threads, -1 if the argument is not a positive number
+     */
+    public static int threads(String arg){
+        try{
+            int threads = Integer.parseInt(arg);
+            return threads >= 1 ? threads : -1;
+        }catch(NumberFormatException e){
+            return -1;
+        }
+    }
+}
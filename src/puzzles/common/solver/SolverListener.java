@@ -0,0 +1,20 @@
+package puzzles.common.solver;
+
+/**
+ * Watches a search while it runs. A solver that supports listeners calls it from the solving thread
+ * every time it finishes a level of the search and once more when it is done, so a listener should be quick.
+ */
+public interface SolverListener {
+    /**
+     * Called after every config of a level was expanded
+     * @param stats The state of the search, frontier being the size of the next level
+     */
+    void levelFinished(SolverStats stats);
+
+    /**
+     * Called once when the search ends, with or without a solution
+     * @param stats The state of the search at the end
+     */
+    default void solveFinished(SolverStats stats) {
+    }
+}
@@ -0,0 +1,38 @@
+package puzzles.common.solver;
+
+/**
+ * A snapshot of a search while it runs, handed to a SolverListener.
+ * @param depth The number of moves from the start config to the level that was just finished
+ * @param frontier The number of configs in the next level, waiting to be expanded
+ * @param expanded The number of configs expanded so far
+ * @param generated The number of neighbors generated so far, duplicates included
+ * @param unique The number of distinct configs found so far
+ * @param nanos The time since the search started, in nanoseconds
+ * @param bytes The memory used to remember the visited configs, exact for searches over keys and
+ *              estimated from the number of configs found otherwise
+ */
+public record SolverStats(int depth, long frontier, long expanded, long generated, long unique, long nanos, long bytes) {
+    /**
+     * Get the rate configs are expanded at
+     * @return perSecond The configs expanded per second since the start
+     */
+    public double perSecond() {
+        return nanos == 0 ? 0 : expanded * 1e9 / nanos;
+    }
+
+    /**
+     * Get the share of generated neighbors that had already been found
+     * @return duplicateRate The duplicates over the generated neighbors, from 0 to 1
+     */
+    public double duplicateRate() {
+        return generated == 0 ? 0 : 1 - (double) unique / generated;
+    }
+
+    /**
+     * Get the memory used per distinct config
+     * @return bytesPerState The bytes used for each config that was found
+     */
+    public double bytesPerState() {
+        return unique == 0 ? 0 : (double) bytes / unique;
+    }
+}
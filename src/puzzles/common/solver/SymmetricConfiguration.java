@@ -0,0 +1,29 @@
+package puzzles.common.solver;
+
+/**
+ * A configuration whose puzzle looks the same after some rotations or reflections of its board.
+ * Configurations that are such images of each other are the same number of moves from a solution, so the
+ * BFS solver only visits one of them. It remembers configurations by their canonical form but keeps
+ * the real ones, so the path it returns is still made of real moves.
+ */
+public interface SymmetricConfiguration extends Configuration {
+    /**
+     * Does the puzzle have any symmetry besides the identity? Only then is canonicalizing worth it.
+     * @return true if canonical may differ from the configuration itself; false, otherwise
+     */
+    boolean hasSymmetry();
+
+    /**
+     * Get the canonical form of the current configuration, which is the same for every image of it.
+     * @return the canonical configuration
+     */
+    Configuration canonical();
+
+    /**
+     * Get the key of the canonical form, for configurations that are also keyed.
+     * @return the canonical key
+     */
+    default long canonicalKey() {
+        return ((KeyedConfiguration) canonical()).getKey();
+    }
+}
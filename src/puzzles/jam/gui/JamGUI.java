@@ -15,6 +15,7 @@ import puzzles.jam.model.CarMask;
 import puzzles.jam.model.JamModel;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.stage.Stage;
@@ -106,7 +107,7 @@ public class JamGUI extends Application  implements Observer<JamModel, String>
             model.loadFile(selectedFile.getPath());
         });
         Button hint = new Button("Hint");
-        hint.setOnMouseClicked(event -> model.hint());
+        hint.setOnMouseClicked(event -> model.hint(Platform::runLater));
         Button reset = new Button("Reset");
         reset.setOnMouseClicked(event -> model.reset());
         buttons.getChildren().addAll(load, hint, reset);
@@ -3,7 +3,6 @@ package puzzles.jam.model;
 /**
  * A class to manage each car on the board
  */
-@SuppressWarnings("RedundantIfStatement")
 public class Car {
 
     /**
@@ -64,114 +63,6 @@ public class Car {
         this.col = other.col;
     }
 
-    /**
-     * @param mask the mask to check on
-     * @return if the car can move up
-     */
-    protected boolean can_up(CarMask mask) {
-        if(orientation == Orientation.HORIZONTAL) {
-            return false;
-        }
-        if(mask.unsafe(row - 1, col)) {
-            return false;
-        }
-        if(mask.getValue(row - 1, col) != NULL) {
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * Move a car up on a given mask
-     * @param mask the mask to modify
-     */
-    protected void up(CarMask mask) {
-        mask.setValue(row - 1, col, letter);
-        mask.setValue(row + length - 1,  col, NULL);
-        row--;
-    }
-
-    /**
-     * @param mask the mask to check on
-     * @return if the car can move down
-     */
-    protected boolean can_down(CarMask mask) {
-        if(orientation == Orientation.HORIZONTAL) {
-            return false;
-        }
-        if(mask.unsafe(row + length, col)) {
-            return false;
-        }
-        if(mask.getValue(row + length, col) != NULL) {
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * Move a car down on a given mask
-     * @param mask the mask to modify
-     */
-    protected void down(CarMask mask) {
-        mask.setValue(row + length, col, letter);
-        mask.setValue(row,  col, NULL);
-        row++;
-    }
-
-    /**
-     * @param mask the mask to check on
-     * @return if the car can move left
-     */
-    protected boolean can_left(CarMask mask) {
-        if(orientation == Orientation.VERTICAL) {
-            return false;
-        }
-        if(mask.unsafe(row, col - 1)) {
-            return false;
-        }
-        if(mask.getValue(row, col - 1) != NULL) {
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * Move a car left on a given mask
-     * @param mask the mask to modify
-     */
-    protected void left(CarMask mask) {
-        mask.setValue(row, col - 1, letter);
-        mask.setValue(row,  col + length - 1, NULL);
-        col--;
-    }
-
-    /**
-     * @param mask the mask to check on
-     * @return if the car can move right
-     */
-    protected boolean can_right(CarMask mask) {
-        if(orientation == Orientation.VERTICAL) {
-            return false;
-        }
-        if(mask.unsafe(row, col + length)) {
-            return false;
-        }
-        if(mask.getValue(row, col + length) != NULL) {
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * Move a car right on a given mask
-     * @param mask the mask to modify
-     */
-    protected void right(CarMask mask) {
-        mask.setValue(row, col + length, letter);
-        mask.setValue(row,  col, NULL);
-        col++;
-    }
-
     /**
      * @return the row of the car
      */
@@ -40,7 +40,7 @@ public class CarMask {
         int col_start = car.getCol();
         for(int row = row_start; row < (car.getOrientation() == Car.Orientation.HORIZONTAL ? row_start + 1 : row_start + car.getLength()); row++) {
             for(int col = col_start; col < (car.getOrientation() == Car.Orientation.VERTICAL ? col_start + 1 : col_start + car.getLength()); col++) {
-                mask[row][col] = car.getLetter();
+                setValue(row, col, car.getLetter());
             }
         }
     }
@@ -97,4 +97,9 @@ public class CarMask {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(mask);
+    }
+
 }
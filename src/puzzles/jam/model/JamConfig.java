@@ -1,27 +1,32 @@
 package puzzles.jam.model;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.HeuristicConfiguration;
+import puzzles.common.solver.KeyedConfiguration;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
-public class JamConfig implements Configuration {
+public class JamConfig implements KeyedConfiguration, HeuristicConfiguration {
 
     /**
-     * the amount of rows and cols in the model
+     * the static layout of the board, shared by every config of the same puzzle
      */
-    protected static int rows, cols;
+    private final JamLayout layout;
 
     /**
-     * the current config's car maks
+     * the offset of every car along its lane, packed by the layout
      */
-    protected final CarMask mask;
+    private final long state;
 
     /**
-     * the cars on the board
+     * the offset of every car along its lane when the layout isn't packed, null if it is
      */
-    protected final Car[] cars;
+    private final int[] offsets;
 
     /**
      * Creates a new config with a given rows, cols, and cars
@@ -30,106 +35,205 @@ public class JamConfig implements Configuration {
      * @param cars the cars
      */
     public JamConfig(int rows, int cols, Car[] cars) {
-        JamConfig.rows = rows;
-        JamConfig.cols = cols;
-        this.mask = new CarMask(rows, cols);
-        for(Car car : cars) {
-            this.mask.addCar(car);
-        }
-        this.cars = cars;
+        this.layout = new JamLayout(rows, cols, cars);
+        int[] offsets = layout.offsets(cars);
+        this.state = layout.packed ? layout.pack(offsets) : 0;
+        this.offsets = layout.packed ? null : offsets;
     }
 
     /**
-     * A copy constructor to make a new config from another
-     * @param config the config to copy
+     * Creates a config of an already known packed layout
+     * @param layout the layout of the board
+     * @param state the packed car offsets
      */
-    public JamConfig(JamConfig config) {
-        this.mask = new CarMask(config.mask);
-        this.cars = new Car[config.cars.length];
-        for(int i = 0; i < cars.length; i ++) {
-            this.cars[i] = new Car(config.cars[i]);
-        }
+    private JamConfig(JamLayout layout, long state) {
+        this.layout = layout;
+        this.state = state;
+        this.offsets = null;
+    }
+
+    /**
+     * Creates a config of an already known layout that isn't packed
+     * @param layout the layout of the board
+     * @param offsets the car offsets
+     */
+    private JamConfig(JamLayout layout, int[] offsets) {
+        this.layout = layout;
+        this.state = 0;
+        this.offsets = offsets;
+    }
+
+    /**
+     * @param index the index of a car
+     * @return the offset of the car along its lane
+     */
+    private int offset(int index) {
+        return offsets != null ? offsets[index] : layout.offset(state, index);
     }
 
     @Override
     public boolean isSolution() {
-        for(Car car : cars) {
-            if (car.getLetter() == 'X') {
-               return car.getCol() == mask.getCols() - 2;
-            }
-        }
-        return false;
+        return layout.goal != -1 && layout.col(layout.goal, offset(layout.goal)) == layout.cols - 2;
     }
 
     @Override
     public Collection<Configuration> getNeighbors() {
         List<Configuration> neighbors = new ArrayList<>();
-        for(int i = 0; i < cars.length; i++) {
-            up(this, i, neighbors);
-            down(this, i, neighbors);
-            left(this, i, neighbors);
-            right(this, i, neighbors);
-        }
+        forEachNeighbor(neighbors::add);
         return neighbors;
     }
 
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> action) {
+        if(offsets == null) {
+            forEachNeighborKey(key -> action.accept(new JamConfig(layout, key)));
+            return;
+        }
+        // a board that isn't packed slides its cars over a plain grid of covered cells, in the same order
+        boolean[] cells = layout.cells(offsets);
+        for(int i = 0; i < offsets.length; i++) {
+            int offset = offsets[i];
+            int length = layout.lengths[i];
+            for(int to = offset - 1; to >= 0 && !cells[layout.cell(i, to)]; to--) {
+                action.accept(moved(i, to));
+            }
+            for(int to = offset + 1; to + length <= layout.ends[i] && !cells[layout.cell(i, to + length - 1)]; to++) {
+                action.accept(moved(i, to));
+            }
+        }
+    }
+
     /**
-     * try to recursively move a car up and generate configs each space
-     * @param config the config to recuse on
-     * @param index the index of the car
-     * @param neighbors the neighbor array to append to
-     */
-    private void up(JamConfig config, int index, List<Configuration> neighbors) {
-        if(config.cars[index].can_up(config.mask)) {
-            JamConfig copy = new JamConfig(config);
-            copy.cars[index].up(copy.mask);
-            neighbors.add(copy);
-            up(copy, index, neighbors);
+     * @param index the index of a car
+     * @param offset the new offset of the car along its lane
+     * @return the config with the car moved to the given offset
+     */
+    private JamConfig moved(int index, int offset) {
+        if(offsets == null) {
+            return new JamConfig(layout, layout.with(state, index, offset));
         }
+        int[] moved = offsets.clone();
+        moved[index] = offset;
+        return new JamConfig(layout, moved);
     }
 
     /**
-     * try to recursively move a car down and generate configs each space
-     * @param config the config to recuse on
-     * @param index the index of the car
-     * @param neighbors the neighbor array to append to
-     */
-    private void down(JamConfig config, int index, List<Configuration> neighbors) {
-        if(config.cars[index].can_down(config.mask)) {
-            JamConfig copy = new JamConfig(config);
-            copy.cars[index].down(copy.mask);
-            neighbors.add(copy);
-            down(copy, index, neighbors);
+     * Slides every car one cell at a time on this config's packed state, which acts as the scratch board:
+     * each step only rewrites the car's offset in a copy of the long, so the state after the step is the
+     * neighbor's key and going back is just using this config's state again. No config is created, the
+     * solver only builds one from the keys it hasn't seen before. Only for configs that have a key.
+     * @param action what to do with each neighbor's key
+     */
+    @Override
+    public void forEachNeighborKey(LongConsumer action) {
+        keyed();
+        long[] occupied = layout.occupancy(state);
+        for(int i = 0; i < layout.letters.length; i++) {
+            int offset = layout.offset(state, i);
+            int length = layout.lengths[i];
+            long lane = layout.lane(occupied, i);
+            // the nearest cars before and after this one in its lane bound how far it can slide
+            int first = Long.SIZE - Long.numberOfLeadingZeros(lane & ((1L << offset) - 1));
+            long after = lane >>> (offset + length);
+            int last = after == 0 ? layout.ends[i] - length : offset + Long.numberOfTrailingZeros(after);
+            // up or left, then down or right
+            for(int to = offset - 1; to >= first; to--) {
+                action.accept(layout.with(state, i, to));
+            }
+            for(int to = offset + 1; to <= last; to++) {
+                action.accept(layout.with(state, i, to));
+            }
         }
     }
 
     /**
-     * try to recursively move a car left and generate configs each space
-     * @param config the config to recuse on
-     * @param index the index of the car
-     * @param neighbors the neighbor array to append to
-     */
-    private void left(JamConfig config, int index, List<Configuration> neighbors) {
-        if(config.cars[index].can_left(config.mask)) {
-            JamConfig copy = new JamConfig(config);
-            copy.cars[index].left(copy.mask);
-            neighbors.add(copy);
-            left(copy, index, neighbors);
+     * Estimates the moves left as the X car's own move plus one move for every car blocking its way
+     * to the exit, each of those cars has to move at least once before X can get out
+     * @return the amount of blocking cars plus one, 0 if the config is a solution
+     */
+    @Override
+    public int estimate() {
+        if(isSolution()) {
+            return 0;
+        }
+        if(layout.goal == -1 || layout.vertical[layout.goal]) {
+            return 1;
         }
+        int row = layout.lanes[layout.goal];
+        int tail = offset(layout.goal) + layout.lengths[layout.goal];
+        int blockers = 0;
+        for(int i = 0; i < layout.letters.length; i++) {
+            if(layout.vertical[i]) {
+                int offset = offset(i);
+                if(layout.lanes[i] >= tail && offset <= row && row < offset + layout.lengths[i]) {
+                    blockers++;
+                }
+            } else if(i != layout.goal && layout.lanes[i] == row && offset(i) >= tail) {
+                blockers++;
+            }
+        }
+        return blockers + 1;
     }
 
     /**
-     * try to recursively move a car right and generate configs each space
-     * @param config the config to recuse on
+     * Moves a car a single space
      * @param index the index of the car
-     * @param neighbors the neighbor array to append to
-     */
-    private void right(JamConfig config, int index, List<Configuration> neighbors) {
-        if(config.cars[index].can_right(config.mask)) {
-            JamConfig copy = new JamConfig(config);
-            copy.cars[index].right(copy.mask);
-            neighbors.add(copy);
-            right(copy, index, neighbors);
+     * @param rowStep the amount of rows to move, -1, 0 or 1
+     * @param colStep the amount of cols to move, -1, 0 or 1
+     * @return the config with the car moved, null if the car can't move that way
+     */
+    public JamConfig step(int index, int rowStep, int colStep) {
+        if(layout.vertical[index] ? colStep != 0 : rowStep != 0) {
+            return null;
+        }
+        int delta = rowStep + colStep;
+        int offset = offset(index);
+        // the cell the car moves into, either just before its head or just after its tail
+        int front = delta < 0 ? offset - 1 : offset + layout.lengths[index];
+        if(front < 0 || front >= layout.ends[index]) {
+            return null;
+        }
+        boolean covered = offsets != null ? layout.cells(offsets)[layout.cell(index, front)] :
+                (layout.lane(layout.occupancy(state), index) >>> front & 1) != 0;
+        return covered ? null : moved(index, offset + delta);
+    }
+
+    /**
+     * Boards are keyed by their packed state, boards too big to pack are searched without keys
+     * @return if the layout of the board is packed
+     */
+    @Override
+    public boolean hasKey() {
+        return offsets == null;
+    }
+
+    /**
+     * @return the fingerprint of the layout, the rows, cols and every car's letter, orientation, lane and length
+     */
+    @Override
+    public long keyFingerprint() {
+        return layout.fingerprint;
+    }
+
+    @Override
+    public long getKey() {
+        keyed();
+        return state;
+    }
+
+    @Override
+    public JamConfig fromKey(long key) {
+        keyed();
+        return new JamConfig(layout, key);
+    }
+
+    /**
+     * Makes sure the config has a key before its key is used
+     * @throws UnsupportedOperationException If the board is too big to pack
+     */
+    private void keyed() {
+        if(offsets != null) {
+            throw new UnsupportedOperationException("board is too big to be keyed");
         }
     }
 
@@ -137,20 +241,36 @@ public class JamConfig implements Configuration {
      * @return the car mask from the config
      */
     public CarMask getMask() {
+        CarMask mask = new CarMask(layout.rows, layout.cols);
+        for(int i = 0; i < layout.letters.length; i++) {
+            mask.addCar(layout.car(i, offset(i)));
+        }
         return mask;
     }
 
+    /**
+     * @return the cars on the board
+     */
+    public Car[] getCars() {
+        Car[] cars = new Car[layout.letters.length];
+        for(int i = 0; i < cars.length; i++) {
+            cars[i] = layout.car(i, offset(i));
+        }
+        return cars;
+    }
+
     @Override
     public boolean equals(Object other) {
         if(other instanceof JamConfig config) {
-            return this.mask.equals(config.mask);
+            return this.state == config.state && Arrays.equals(this.offsets, config.offsets) &&
+                    (this.layout == config.layout || this.layout.equals(config.layout));
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return 0;
+        return offsets != null ? Arrays.hashCode(offsets) : Long.hashCode(state * 0x9E3779B97F4A7C15L);
     }
 
     @Override
@@ -0,0 +1,174 @@
+package puzzles.jam.model;
+
+import puzzles.common.Generate;
+import puzzles.common.solver.DistanceTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Makes hard jam boards. A random board is made by dropping the X car and then other cars on a car mask
+ * wherever they fit. Every board reachable from it is enumerated into a distance table, and the one
+ * farthest from a solution is the generated board, so it is the hardest board of that random board's
+ * connected component. Cars and trucks follow the letters of the shipped boards: A to L are 2 long and
+ * O to S are 3 long, which is also what the GUI has images for.
+ * A generator only keeps its board size, so one can be shared by any number of threads.
+ */
+public class JamGenerator {
+
+    /**
+     * the letters of the 2 long cars
+     */
+    private static final String CARS = "ABCDEFGHIJKL";
+
+    /**
+     * the letters of the 3 long trucks
+     */
+    private static final String TRUCKS = "OPQRS";
+
+    /**
+     * A generated board
+     * @param config the board
+     * @param moves the amount of moves its shortest solution takes
+     * @param component the amount of boards reachable from it
+     */
+    public record Board(JamConfig config, int moves, int component) implements Generate.Board {
+
+        /**
+         * @return the board in the format of the data/jam files
+         */
+        @Override
+        public String format() {
+            CarMask mask = config.getMask();
+            Car[] cars = config.getCars();
+            StringBuilder text = new StringBuilder();
+            text.append(mask.getRows()).append(' ').append(mask.getCols()).append(System.lineSeparator());
+            text.append(cars.length).append(System.lineSeparator());
+            for(Car car : cars) {
+                boolean vertical = car.getOrientation() == Car.Orientation.VERTICAL;
+                text.append(car.getLetter()).append(' ')
+                        .append(car.getRow()).append(' ').append(car.getCol()).append(' ')
+                        .append(vertical ? car.getRow() + car.getLength() - 1 : car.getRow()).append(' ')
+                        .append(vertical ? car.getCol() : car.getCol() + car.getLength() - 1)
+                        .append(System.lineSeparator());
+            }
+            return text.toString();
+        }
+
+        /**
+         * @return how many moves the board takes and how many boards can be reached from it
+         */
+        @Override
+        public String summary() {
+            return moves + " moves, " + component + " reachable boards";
+        }
+    }
+
+    /**
+     * the amount of rows and cols of the boards
+     */
+    private final int rows, cols;
+
+    /**
+     * Creates a generator of boards of a given size
+     * @param rows the amount of rows, less than 64 like the cols
+     * @param cols the amount of cols, at least 3 so the X car can get out
+     */
+    public JamGenerator(int rows, int cols) {
+        //Every lane of the board has to fit in a long
+        if(rows < 1 || cols < 3 || rows >= Long.SIZE || cols >= Long.SIZE) {
+            throw new IllegalArgumentException("boards need 1 to " + (Long.SIZE - 1) + " rows and 3 to " + (Long.SIZE - 1) + " cols");
+        }
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Makes one random board and finds the hardest board reachable from it
+     * @param random where the cars are placed from
+     * @param cars the amount of cars and trucks to try to place besides the X car
+     * @return the hardest board, null if the random board can't be solved
+     */
+    public Board generate(SplittableRandom random, int cars) {
+        JamConfig start = place(random, cars);
+        if(start == null) {
+            return null;
+        }
+        DistanceTable distances = DistanceTable.build(start);
+        int farthest = -1, moves = DistanceTable.UNSOLVABLE;
+        for(int i = 0; i < distances.size(); i++) {
+            if(distances.distance(i) > moves) {
+                moves = distances.distance(i);
+                farthest = i;
+            }
+        }
+        if(moves == DistanceTable.UNSOLVABLE) {
+            return null;
+        }
+        return new Board(start.fromKey(distances.key(farthest)), moves, distances.size());
+    }
+
+    /**
+     * Places the X car in the middle row and then as many other cars as fit in a few tries, leaving
+     * out cars that would lie in X's row in front of it
+     * @param random where the cars are placed from
+     * @param cars the amount of cars and trucks to try to place
+     * @return the board, null if its cars can't be packed into a key
+     */
+    private JamConfig place(SplittableRandom random, int cars) {
+        CarMask mask = new CarMask(rows, cols);
+        List<Car> placed = new ArrayList<>();
+        // anywhere in its row but the exit, where it would already be solved
+        int xRow = (rows - 1) / 2;
+        int xCol = random.nextInt(cols - 2);
+        Car x = new Car("X", new int[] {xRow, xCol, xRow, xCol + 1});
+        mask.addCar(x);
+        placed.add(x);
+        int nextCar = 0, nextTruck = 0;
+        for(int tries = 0; placed.size() <= cars && tries < 20 * cars; tries++) {
+            boolean truck = nextCar == CARS.length() || (nextTruck < TRUCKS.length() && random.nextInt(4) == 0);
+            if(truck && nextTruck == TRUCKS.length()) {
+                break;
+            }
+            int length = truck ? 3 : 2;
+            boolean vertical = random.nextBoolean();
+            int spanRows = vertical ? length : 1;
+            int spanCols = vertical ? 1 : length;
+            if(spanRows > rows || spanCols > cols) {
+                continue;
+            }
+            int row = random.nextInt(rows - spanRows + 1);
+            int col = random.nextInt(cols - spanCols + 1);
+            // a car lying in front of X in its row could never get out of its way
+            if((!vertical && row == xRow && col > xCol) || !free(mask, row, col, spanRows, spanCols)) {
+                continue;
+            }
+            String letter = String.valueOf(truck ? TRUCKS.charAt(nextTruck++) : CARS.charAt(nextCar++));
+            Car car = new Car(letter, new int[] {row, col, row + spanRows - 1, col + spanCols - 1});
+            mask.addCar(car);
+            placed.add(car);
+        }
+        JamConfig config = new JamConfig(rows, cols, placed.toArray(new Car[0]));
+        return config.hasKey() ? config : null;
+    }
+
+    /**
+     * @param mask the cars placed so far
+     * @param row the top row of the cells
+     * @param col the left col of the cells
+     * @param spanRows the amount of rows of the cells
+     * @param spanCols the amount of cols of the cells
+     * @return if none of the cells has a car in it
+     */
+    private static boolean free(CarMask mask, int row, int col, int spanRows, int spanCols) {
+        for(int r = row; r < row + spanRows; r++) {
+            for(int c = col; c < col + spanCols; c++) {
+                if(mask.getValue(r, c) != Car.NULL) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,336 @@
+package puzzles.jam.model;
+
+import java.util.Arrays;
+
+/**
+ * The static part of a jam puzzle that never changes while cars slide around. Every config created
+ * from the same puzzle shares a single layout, so a config only has to remember one offset per car,
+ * packed together into a long. Boards whose lanes or offsets don't fit into a long aren't packed, their
+ * configs keep the offsets in an array instead and are searched without keys.
+ */
+final class JamLayout {
+
+    /**
+     * the amount of rows and cols on the board
+     */
+    final int rows, cols;
+
+    /**
+     * the letter of each car
+     */
+    final char[] letters;
+
+    /**
+     * if each car is vertical (slides along its column) or horizontal (slides along its row)
+     */
+    final boolean[] vertical;
+
+    /**
+     * the length of each car
+     */
+    final int[] lengths;
+
+    /**
+     * the row of each horizontal car or the col of each vertical car
+     */
+    final int[] lanes;
+
+    /**
+     * the amount of cells in each car's lane
+     */
+    final int[] ends;
+
+    /**
+     * if every lane fits into a long and the offsets of all cars fit into a single long together
+     */
+    final boolean packed;
+
+    /**
+     * if the whole board fits into a long, then occupancy is kept as two bitboards instead of one long per lane
+     */
+    final boolean small;
+
+    /**
+     * the cells each car covers along its own lane when its offset is 0, one bit per cell
+     */
+    private final long[] bodies;
+
+    /**
+     * the index of each car's lane in a big board's occupancy array, rows come first and then cols
+     */
+    private final int[] slots;
+
+    /**
+     * where the cells of each car's lane start in a small board's row major or col major bitboard
+     */
+    private final int[] laneShifts;
+
+    /**
+     * where each car's entries start in the cell tables, one entry per offset it can be at
+     */
+    private final int[] starts;
+
+    /**
+     * the cells a car covers at each of its offsets, in the row major and col major bitboards of a small board
+     */
+    private final long[] rowCells, colCells;
+
+    /**
+     * the bit position of each car's offset inside the packed state
+     */
+    final int[] shifts;
+
+    /**
+     * the bit mask of each car's offset once shifted down
+     */
+    final long[] masks;
+
+    /**
+     * the index of the X car, -1 if the board has none
+     */
+    final int goal;
+
+    /**
+     * a hash of everything but the offsets, so keys of different boards can be told apart
+     */
+    final long fingerprint;
+
+    /**
+     * Creates the layout of a board from its starting cars
+     * @param rows the amount of rows
+     * @param cols the amount of cols
+     * @param cars the cars on the board
+     */
+    JamLayout(int rows, int cols, Car[] cars) {
+        this.rows = rows;
+        this.cols = cols;
+        this.letters = new char[cars.length];
+        this.vertical = new boolean[cars.length];
+        this.lengths = new int[cars.length];
+        this.lanes = new int[cars.length];
+        this.ends = new int[cars.length];
+        this.bodies = new long[cars.length];
+        this.slots = new int[cars.length];
+        this.laneShifts = new int[cars.length];
+        this.starts = new int[cars.length + 1];
+        this.shifts = new int[cars.length];
+        this.masks = new long[cars.length];
+        int goal = -1;
+        int shift = 0;
+        for(int i = 0; i < cars.length; i++) {
+            Car car = cars[i];
+            letters[i] = car.getLetter();
+            vertical[i] = car.getOrientation() == Car.Orientation.VERTICAL;
+            lengths[i] = car.getLength();
+            lanes[i] = vertical[i] ? car.getCol() : car.getRow();
+            ends[i] = vertical[i] ? rows : cols;
+            bodies[i] = (1L << lengths[i]) - 1;
+            slots[i] = vertical[i] ? rows + lanes[i] : lanes[i];
+            laneShifts[i] = lanes[i] * ends[i];
+            starts[i + 1] = starts[i] + Math.max(ends[i] - lengths[i] + 1, 0);
+            int last = (vertical[i] ? rows : cols) - lengths[i];
+            int bits = 32 - Integer.numberOfLeadingZeros(Math.max(last, 0));
+            shifts[i] = shift;
+            masks[i] = (1L << bits) - 1;
+            shift += bits;
+            if(letters[i] == 'X') {
+                goal = i;
+            }
+        }
+        this.goal = goal;
+        long fingerprint = mix(rows) ^ mix((long) cols << 32);
+        for(int i = 0; i < cars.length; i++) {
+            long car = (long) letters[i] << 48 | (long) lengths[i] << 32 | (long) lanes[i] << 1 | (vertical[i] ? 1 : 0);
+            fingerprint = mix(fingerprint ^ car);
+        }
+        this.fingerprint = fingerprint;
+        this.packed = rows < Long.SIZE && cols < Long.SIZE && shift <= Long.SIZE;
+        this.small = packed && rows * cols <= Long.SIZE;
+        this.rowCells = new long[small ? starts[cars.length] : 0];
+        this.colCells = new long[rowCells.length];
+        for(int i = 0; small && i < cars.length; i++) {
+            for(int offset = 0; offset <= ends[i] - lengths[i]; offset++) {
+                for(int n = 0; n < lengths[i]; n++) {
+                    int row = vertical[i] ? offset + n : lanes[i];
+                    int col = vertical[i] ? lanes[i] : offset + n;
+                    rowCells[starts[i] + offset] |= 1L << (row * cols + col);
+                    colCells[starts[i] + offset] |= 1L << (col * rows + row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the starting offsets of the given cars
+     * @param cars the cars, in the same order as the layout was made with
+     * @return the offset of every car along its lane
+     */
+    int[] offsets(Car[] cars) {
+        int[] offsets = new int[cars.length];
+        for(int i = 0; i < cars.length; i++) {
+            offsets[i] = vertical[i] ? cars[i].getRow() : cars[i].getCol();
+        }
+        return offsets;
+    }
+
+    /**
+     * Packs offsets into a state, only for a packed layout
+     * @param offsets the offset of every car along its lane
+     * @return the packed state
+     */
+    long pack(int[] offsets) {
+        long state = 0;
+        for(int i = 0; i < offsets.length; i++) {
+            state |= (long) offsets[i] << shifts[i];
+        }
+        return state;
+    }
+
+    /**
+     * @param state a packed state
+     * @param index the index of the car
+     * @return the offset of the car along its lane
+     */
+    int offset(long state, int index) {
+        return (int) ((state >>> shifts[index]) & masks[index]);
+    }
+
+    /**
+     * @param state a packed state
+     * @param index the index of the car
+     * @param offset the new offset of the car along its lane
+     * @return the state with the car moved to the given offset
+     */
+    long with(long state, int index, int offset) {
+        return (state & ~(masks[index] << shifts[index])) | ((long) offset << shifts[index]);
+    }
+
+    /**
+     * @param index the index of the car
+     * @param offset the offset of the car along its lane
+     * @return the row of the head of the car
+     */
+    int row(int index, int offset) {
+        return vertical[index] ? offset : lanes[index];
+    }
+
+    /**
+     * @param index the index of the car
+     * @param offset the offset of the car along its lane
+     * @return the col of the head of the car
+     */
+    int col(int index, int offset) {
+        return vertical[index] ? lanes[index] : offset;
+    }
+
+    /**
+     * Marks the cells every car of a state covers, so a car finds everything in its way in its own lane
+     * with a couple of bit operations. A small board is one row major and one col major bitboard, made by
+     * or-ing together the precomputed cells of each car, so every lane is a run of bits in one of them.
+     * A big board has a long with a bit per col for each row, followed by a long with a bit per row for each col.
+     * @param state a packed state
+     * @return the occupancy, to be read with lane
+     */
+    long[] occupancy(long state) {
+        if(small) {
+            long byRow = 0, byCol = 0;
+            for(int i = 0; i < letters.length; i++) {
+                int cell = starts[i] + offset(state, i);
+                byRow |= rowCells[cell];
+                byCol |= colCells[cell];
+            }
+            return new long[] {byRow, byCol};
+        }
+        long[] occupied = new long[rows + cols];
+        for(int i = 0; i < letters.length; i++) {
+            int offset = offset(state, i);
+            occupied[slots[i]] |= bodies[i] << offset;
+            // the car also crosses one cell of every lane running the other way
+            int cross = vertical[i] ? offset : rows + offset;
+            for(int n = 0; n < lengths[i]; n++) {
+                occupied[cross + n] |= 1L << lanes[i];
+            }
+        }
+        return occupied;
+    }
+
+    /**
+     * @param occupied the occupancy of a state
+     * @param index the index of a car
+     * @return the covered cells of the car's lane, one bit per cell, including the car's own
+     */
+    long lane(long[] occupied, int index) {
+        if(small) {
+            return (occupied[vertical[index] ? 1 : 0] >>> laneShifts[index]) & ((1L << ends[index]) - 1);
+        }
+        return occupied[slots[index]];
+    }
+
+    /**
+     * Marks the cells every car covers on a board that isn't packed, the board may be too big for
+     * the bit operations of occupancy
+     * @param offsets the offset of every car along its lane
+     * @return if each cell is covered, in row major order
+     */
+    boolean[] cells(int[] offsets) {
+        boolean[] cells = new boolean[rows * cols];
+        for(int i = 0; i < offsets.length; i++) {
+            for(int n = 0; n < lengths[i]; n++) {
+                cells[cell(i, offsets[i] + n)] = true;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * @param index the index of a car
+     * @param at a position along the car's lane
+     * @return the row major index of the cell at that position
+     */
+    int cell(int index, int at) {
+        return row(index, at) * cols + col(index, at);
+    }
+
+    /**
+     * @param index the index of the car
+     * @param offset the offset of the car along its lane
+     * @return the car as a standalone object
+     */
+    Car car(int index, int offset) {
+        int row = row(index, offset);
+        int col = col(index, offset);
+        int[] data = vertical[index] ?
+                new int[] {row, col, row + lengths[index] - 1, col} :
+                new int[] {row, col, row, col + lengths[index] - 1};
+        return new Car(String.valueOf(letters[index]), data);
+    }
+
+    /**
+     * Scrambles a value so every bit of it affects every bit of the result
+     * @param value the value
+     * @return the scrambled value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(other instanceof JamLayout layout) {
+            return this.rows == layout.rows &&
+                    this.cols == layout.cols &&
+                    Arrays.equals(this.letters, layout.letters) &&
+                    Arrays.equals(this.vertical, layout.vertical) &&
+                    Arrays.equals(this.lengths, layout.lengths) &&
+                    Arrays.equals(this.lanes, layout.lanes);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(letters) + Arrays.hashCode(lanes);
+    }
+}
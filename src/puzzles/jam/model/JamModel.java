@@ -1,13 +1,15 @@
 package puzzles.jam.model;
 
 import puzzles.common.Observer;
-import puzzles.common.solver.Configuration;
-import puzzles.common.solver.Solver;
+import puzzles.common.PuzzleFile;
+import puzzles.common.solver.DistanceTable;
+import puzzles.common.solver.HintSearch;
+import puzzles.common.solver.SolutionCache;
 
 import java.io.*;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
+import java.util.concurrent.Executor;
 
 public class JamModel {
     /** the collection of observers of this model */
@@ -18,13 +20,46 @@ public class JamModel {
     private boolean moveMode;
     private int moveModeRow, moveModeCol;
     private String fileName;
-    private final Queue<JamConfig> hint;
+
+    /**
+     * the precomputed distances of the loaded puzzle, null if it has none
+     */
+    private DistanceTable table;
+
+    /**
+     * the last distance table read, and the path, modification time and length of its file when it was read
+     */
+    private DistanceTable readTable;
+    private String readTableStamp;
+
+    /**
+     * the solved paths of every jam model, so hints from a config that was already solved are instant
+     */
+    private static final SolutionCache HINTS = new SolutionCache(100_000);
+
+    /**
+     * the hint searches of this model
+     */
+    private final HintSearch<JamConfig> hints = new HintSearch<>(HINTS, "No solution could be found", "You have won!");
+
+    /**
+     * the jam file format: the rows and cols, the amount of cars, then each car's letter and its first and last cell
+     */
+    private static final PuzzleFile.Format<JamConfig> FORMAT = file -> {
+        int rows = file.nextInt();
+        int cols = file.nextInt();
+        Car[] cars = new Car[file.nextInt()];
+        for (int i = 0; i < cars.length; i++) {
+            String letter = String.valueOf(file.nextChar());
+            cars[i] = new Car(letter, new int[] {file.nextInt(), file.nextInt(), file.nextInt(), file.nextInt()});
+        }
+        return new JamConfig(rows, cols, cars);
+    };
 
     /**
      * creates a new jam model
      */
     public JamModel() {
-        hint = new LinkedList<>();
     }
 
     /**
@@ -37,29 +72,11 @@ public class JamModel {
             alertObservers("File: " + fileName + " does not exist.");
             return;
         }
-        try (BufferedReader reader = new BufferedReader(new FileReader(file));) {
-            String[] sizes = reader.readLine().split(" ");
-            int rows = Integer.parseInt(sizes[0]);
-            int cols = Integer.parseInt(sizes[1]);
-            Car[] cars = new Car[Integer.parseInt(reader.readLine())];
-            for (int i = 0; i < cars.length; i++) {
-                String line = reader.readLine();
-                if(line == null) continue;
-                String[] str_data = line.split(" ");
-                String letter = str_data[0];
-                int[] data = new int[] {
-                        Integer.parseInt(str_data[1]),
-                        Integer.parseInt(str_data[2]),
-                        Integer.parseInt(str_data[3]),
-                        Integer.parseInt(str_data[4])
-
-                };
-                cars[i] = new Car(letter, data);
-            }
-            this.config = new JamConfig(rows, cols, cars);
+        try {
+            this.config = PuzzleFile.load(fileName, FORMAT);
+            this.table = loadTable(fileName);
             this.fileName = fileName;
             this.moveMode = false;
-            this.hint.clear();
             alertObservers("Successfully loaded file " + file.getName());
         } catch (IOException e) {
             alertObservers("Error opining file: " + file.getName());
@@ -68,6 +85,42 @@ public class JamModel {
         }
     }
 
+    /**
+     * Gets the file a puzzle's distance table is stored in, the puzzle file with a .dist extension
+     * @param fileName the puzzle file path
+     * @return the table file path
+     */
+    public static String tableFile(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return (dot > fileName.lastIndexOf(File.separatorChar) ? fileName.substring(0, dot) : fileName) + ".dist";
+    }
+
+    /**
+     * Loads the distance table stored next to a puzzle file, if there is one that was built from the loaded config.
+     * The table file is only read again when it is a different file or it changed since it was last read, so a
+     * table written after the puzzle was first loaded is picked up by the next load or reset
+     * @param fileName the puzzle file path
+     * @return the table, null if there is no usable table
+     */
+    private DistanceTable loadTable(String fileName) {
+        File tableFile = new File(tableFile(fileName));
+        if(!tableFile.exists()) {
+            readTable = null;
+            readTableStamp = null;
+            return null;
+        }
+        String stamp = tableFile.getAbsolutePath() + ":" + tableFile.lastModified() + ":" + tableFile.length();
+        if(!stamp.equals(readTableStamp)) {
+            try {
+                readTable = DistanceTable.read(tableFile.getPath());
+            } catch (IOException e) {
+                readTable = null;
+            }
+            readTableStamp = stamp;
+        }
+        return readTable != null && config.hasKey() && readTable.builtFrom(config) ? readTable : null;
+    }
+
     /**
      * @return if the current model has a loaded game
      */
@@ -117,14 +170,8 @@ public class JamModel {
         if(!status) {
             alertObservers("Illegal move");
         } else if(this.config.isSolution()) {
-            if(!this.config.equals(hint.peek())) {
-                hint.clear();
-            }
             alertObservers("You have won!");
         } else {
-            if(!this.config.equals(hint.peek())) {
-                hint.clear();
-            }
             alertObservers(String.format(
                     "Moved car at (%s,%s) to (%s,%s)", moveModeRow, moveModeCol, row, col
             ));
@@ -132,21 +179,34 @@ public class JamModel {
     }
 
     /**
-     * trys to move a car up
+     * trys to move a car a given amount of spaces, stopping early if it gets blocked
      * @param index the car index
      * @param amount the amount to move
-     * @return if the car successfully moved
+     * @param rowStep the row direction, -1, 0 or 1
+     * @param colStep the col direction, -1, 0 or 1
+     * @return if the car moved at least one space
      */
-    private boolean up(int index, int amount) {
+    private boolean move(int index, int amount, int rowStep, int colStep) {
         for(int i = 0; i < amount; i ++) {
-            if(!config.cars[index].can_up(config.mask)) {
+            JamConfig moved = config.step(index, rowStep, colStep);
+            if(moved == null) {
                 return i != 0;
             }
-            config.cars[index].up(config.mask);
+            config = moved;
         }
         return true;
     }
 
+    /**
+     * trys to move a car up
+     * @param index the car index
+     * @param amount the amount to move
+     * @return if the car successfully moved
+     */
+    private boolean up(int index, int amount) {
+        return move(index, amount, -1, 0);
+    }
+
     /**
      * trys to move a car down
      * @param index the car index
@@ -154,13 +214,7 @@ public class JamModel {
      * @return if the car successfully moved
      */
     private boolean down(int index, int amount) {
-        for(int i = 0; i < amount; i ++) {
-            if(!config.cars[index].can_down(config.mask)) {
-                return i != 0;
-            }
-            config.cars[index].down(config.mask);
-        }
-        return true;
+        return move(index, amount, 1, 0);
     }
 
     /**
@@ -170,13 +224,7 @@ public class JamModel {
      * @return if the car successfully moved
      */
     private boolean left(int index, int amount) {
-        for(int i = 0; i < amount; i ++) {
-            if(!config.cars[index].can_left(config.mask)) {
-                return i != 0;
-            }
-            config.cars[index].left(config.mask);
-        }
-        return true;
+        return move(index, amount, 0, -1);
     }
 
     /**
@@ -186,13 +234,7 @@ public class JamModel {
      * @return if the car successfully moved
      */
     private boolean right(int index, int amount) {
-        for(int i = 0; i < amount; i ++) {
-            if(!config.cars[index].can_right(config.mask)) {
-                return i != 0;
-            }
-            config.cars[index].right(config.mask);
-        }
-        return true;
+        return move(index, amount, 0, 1);
     }
 
     /**
@@ -202,9 +244,10 @@ public class JamModel {
      * @return the index of the car, -1 if doesn't exist
      */
     private int getCarIndex(int row, int col) {
-        char letter = config.mask.getValue(row, col);
-        for(int i = 0; i < config.cars.length; i++) {
-            if(config.cars[i].getLetter() == letter) {
+        char letter = config.getMask().getValue(row, col);
+        Car[] cars = config.getCars();
+        for(int i = 0; i < cars.length; i++) {
+            if(cars[i].getLetter() == letter) {
                 return i;
             }
         }
@@ -217,7 +260,7 @@ public class JamModel {
      * @param col the col to select
      */
     private void selectCar(int row, int col) {
-        char letter = config.mask.getValue(row, col);
+        char letter = config.getMask().getValue(row, col);
         if(letter == Car.NULL) {
             alertObservers("Cannot select an empty space");
             return;
@@ -244,7 +287,7 @@ public class JamModel {
             alertObservers("You have won!");
             return;
         }
-        if (config.mask.unsafe(row, col)) {
+        if (config.getMask().unsafe(row, col)) {
             alertObservers("That selection is out of bounds");
             return;
         }
@@ -256,42 +299,73 @@ public class JamModel {
     }
 
     /**
-     * Get a hint from the model to see what the most efficient next move is
+     * Get a hint from the model to see what the most efficient next move is, searching on this thread
      */
     public void hint() {
+        if(knownHint()) {
+            return;
+        }
+        applyHint(config, hints.search(config));
+    }
+
+    /**
+     * Get a hint from the model, searching in the background if it isn't known yet so the caller isn't
+     * blocked. A hint asked for while another is searching cancels the older one. The result is applied
+     * and observers are told about it through the callback executor, the GUI passes Platform::runLater.
+     * @param callback runs the code that applies the hint, on the thread that owns the model
+     */
+    public void hint(Executor callback) {
+        if(knownHint()) {
+            return;
+        }
+        JamConfig from = config;
+        alertObservers("Searching for a hint...");
+        hints.search(from, callback, hint -> applyHint(from, hint));
+    }
+
+    /**
+     * Answers a hint that needs no search, from the distance table or the solved paths
+     * @return if the hint was answered
+     */
+    private boolean knownHint() {
         if(fileName == null) {
             alertObservers("You have no file loaded");
-            return;
+            return true;
         }
         if(config.isSolution()) {
             alertObservers("You have won!");
+            return true;
+        }
+        if(table != null && table.distance(config) != DistanceTable.UNKNOWN) {
+            applyHint(config, new HintSearch.Hint<>((JamConfig) table.next(config), "No solution could be found"));
+            return true;
+        }
+        HintSearch.Hint<JamConfig> known = hints.known(config);
+        if(known != null) {
+            applyHint(config, known);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves to the hinted config, unless the board changed since the hint was asked for
+     * @param from the config the hint is for
+     * @param hint the hint
+     */
+    private void applyHint(JamConfig from, HintSearch.Hint<JamConfig> hint) {
+        if(from != config) {
             return;
         }
-        if(hint.isEmpty()) {
-            Solver solver = new Solver();
-            Iterable<Configuration> solution = solver.solve(config);
-            if(solution == null) {
-                alertObservers("No solution could be found");
-            } else {
-                for (Configuration configuration : solution) {
-                    hint.offer((JamConfig) configuration);
-                }
-                hint.remove();
-                System.out.println(hint.size());
-                this.config = hint.remove();
-                if (this.config.isSolution()) {
-                    alertObservers("You have won!");
-                } else {
-                    alertObservers("Here is a hint!");
-                }
-            }
+        if(hint.next() == null) {
+            alertObservers(hint.failure());
+            return;
+        }
+        this.config = hint.next();
+        if(this.config.isSolution()) {
+            alertObservers("You have won!");
         } else {
-            this.config = hint.remove();
-            if(this.config.isSolution()) {
-                alertObservers("You have won!");
-            } else {
-                alertObservers("Here is a hint!");
-            }
+            alertObservers("Here is a hint!");
         }
     }
 
@@ -310,14 +384,14 @@ public class JamModel {
         if(fileName == null) {
             return null;
         }
-        return config.mask;
+        return config.getMask();
     }
 
     public Car[] getCars() {
         if(fileName == null) {
             return null;
         }
-        return config.cars;
+        return config.getCars();
     }
 
     /**
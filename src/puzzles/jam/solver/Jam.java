@@ -1,63 +1,99 @@
 package puzzles.jam.solver;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ExternalSolver;
+import puzzles.common.solver.ParallelSolver;
 import puzzles.common.solver.Solver;
+import puzzles.common.solver.SolverArgs;
 import puzzles.jam.model.Car;
 import puzzles.jam.model.CarMask;
 import puzzles.jam.model.JamConfig;
 import puzzles.jam.model.JamModel;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
 public class Jam {
 
     /**
-     * Takes in a file name as argument 1 and try's to find the solution
+     * Takes in a file name as argument 1 and try's to find the solution, an optional argument 2
+     * solves it with a parallel solver using that many threads, or with the visited boards on disk if it is disk.
+     * A last argument of --progress prints the progress of the search to standard error
      * @param args arguments
      */
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.out.println("Usage: java Jam filename");
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+        solve(args, out);
+        out.flush();
+    }
+
+    /**
+     * Solves the puzzle the way main does, writing the results somewhere else than the standard output
+     * @param args the arguments main takes
+     * @param out where to write the results, everything goes through it so it should be buffered
+     */
+    public static void solve(String[] args, PrintWriter out) {
+        SolverArgs options = SolverArgs.parse(args);
+        args = options.args();
+        //The second argument is checked before the board is loaded, so a bad one only prints the usage
+        int threads = args.length == 2 && !args[1].equals("disk") ? SolverArgs.threads(args[1]) : 0;
+        if ((args.length != 1 && args.length != 2) || threads == -1) {
+            out.println("Usage: java Jam filename [threads|disk] [--progress]");
+            return;
         }
         JamModel model = new JamModel();
         model.loadFile(args[0]);
         if(!model.isLoaded()) {
-            System.out.println("Failed to load file: " + args[1]);
+            out.println("Failed to load file: " + args[0]);
+            return;
+        }
+        //The disk search writes keys, which boards too big to pack don't have
+        if(args.length == 2 && args[1].equals("disk") && !model.getConfig().hasKey()) {
+            out.println("Board is too big to solve on disk: " + args[0]);
+            return;
         }
-        System.out.println("File: " + args[0]);
-        board(model.getConfig().getMask());
-        Solver solver = new Solver();
+        //Each board is built up in one reused builder
+        CarMask start = model.getConfig().getMask();
+        StringBuilder board = new StringBuilder(start.getRows() * (2 * start.getCols() + System.lineSeparator().length()));
+        out.println("File: " + args[0]);
+        out.append(board(board, start));
+        out.flush();
+        Solver solver = args.length == 1 ? new Solver() :
+                args[1].equals("disk") ? new ExternalSolver() : new ParallelSolver(threads);
+        options.listen(solver);
         Iterable<Configuration> configs = solver.solve(model.getConfig());
-        System.out.println("Total Configs: " + solver.getTotalConfigs());
-        System.out.println("Unique Configs: " + solver.getUniqueConfigs());
+        out.println("Total Configs: " + solver.getTotalConfigs());
+        out.println("Unique Configs: " + solver.getUniqueConfigs());
         if(configs == null) {
-            System.out.print("No Solution");
+            out.print("No Solution");
         } else {
             int i = 0;
             for (Configuration config : configs) {
                 JamConfig jam = (JamConfig) config;
-                System.out.println("Step: " + i);
-                board(jam.getMask());
-                System.out.println();
+                out.println("Step: " + i);
+                out.append(board(board, jam.getMask()));
+                out.println();
                 i++;
             }
         }
     }
 
     /**
-     * Prints out a board to the standard output given a certain car mask
+     * Writes out a board given a certain car mask
+     * @param board the builder to write the board into, it is cleared first
      * @param mask the game board car mask
+     * @return the builder holding the board
      */
-    private static void board(CarMask mask) {
+    private static StringBuilder board(StringBuilder board, CarMask mask) {
+        board.setLength(0);
         for (int row = 0; row < mask.getRows(); row++) {
             for (int col = 0; col < mask.getCols(); col++) {
                 char value = mask.getValue(row, col);
-                if(value == Car.NULL) {
-                    System.out.print('.');
-                } else {
-                    System.out.print(value);
-                }
-                System.out.print(' ');
+                board.append(value == Car.NULL ? '.' : value).append(' ');
             }
-            System.out.println();
+            board.append(System.lineSeparator());
         }
+        return board;
     }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package puzzles.jam.solver;
+
+import puzzles.common.Generate;
+import puzzles.common.solver.SolverArgs;
+import puzzles.jam.model.JamGenerator;
+
+import java.nio.file.Path;
+
+public class JamGenerate {
+
+    private static final String USAGE = "Usage: java JamGenerate count minMoves output [rows cols] [threads]";
+
+    /**
+     * Generates hard boards into a directory in the data/jam format, named gen-0.txt, gen-1.txt, ...
+     * Every thread keeps making random boards and keeps the hardest board reachable from each one,
+     * if its shortest solution is long enough and no other thread found the same board.
+     * @param args [0]: the amount of boards;
+     *             [1]: the fewest moves a board's shortest solution may take;
+     *             [2]: the directory to write the boards to;
+     *             [3, 4]: optional, the amount of rows and cols, 6 by 6 by default;
+     *             last: optional, the amount of threads, one per processor by default
+     */
+    public static void main(String[] args) {
+        int count, minMoves, rows = 6, cols = 6, threads = Runtime.getRuntime().availableProcessors();
+        try {
+            if (args.length < 3 || args.length > 6) {
+                throw new IllegalArgumentException();
+            }
+            count = Integer.parseInt(args[0]);
+            minMoves = Integer.parseInt(args[1]);
+            //The rows and cols are given together, so four or six arguments end with the threads
+            if (args.length >= 5) {
+                rows = Integer.parseInt(args[3]);
+                cols = Integer.parseInt(args[4]);
+            }
+            if (args.length == 4 || args.length == 6) {
+                threads = SolverArgs.threads(args[args.length - 1]);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+        if (count < 1 || threads == -1) {
+            System.out.println(USAGE);
+            return;
+        }
+        JamGenerator generator;
+        try {
+            generator = new JamGenerator(rows, cols);
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE + ", " + e.getMessage());
+            return;
+        }
+        int cells = rows * cols;
+        //Crowded boards are the ones with long solutions, a third of the cells plus a few more
+        Generate.run(count, minMoves, Path.of(args[2]), threads, random -> generator.generate(random, cells / 3 + random.nextInt(5)));
+    }
+}
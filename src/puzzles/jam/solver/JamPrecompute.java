@@ -0,0 +1,56 @@
+package puzzles.jam.solver;
+
+import puzzles.common.solver.DistanceTable;
+import puzzles.jam.model.JamModel;
+
+import java.io.IOException;
+
+public class JamPrecompute {
+
+    /**
+     * Takes in a file name as argument 1 and writes the distance to the solution of every board reachable
+     * from it to a table file, argument 2 or the file name with a .dist extension by default.
+     * The jam model finds that table next to the puzzle file and uses it for hints.
+     * @param args arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 2) {
+            System.out.println("Usage: java JamPrecompute filename [table]");
+            return;
+        }
+        JamModel model = new JamModel();
+        model.loadFile(args[0]);
+        if(!model.isLoaded()) {
+            System.out.println("Failed to load file: " + args[0]);
+            return;
+        }
+        if(!model.getConfig().hasKey()) {
+            System.out.println("Board is too big for a distance table: " + args[0]);
+            return;
+        }
+        String table = args.length == 2 ? args[1] : JamModel.tableFile(args[0]);
+        long start = System.nanoTime();
+        DistanceTable distances = DistanceTable.build(model.getConfig());
+        long built = System.nanoTime();
+        int solvable = 0, farthest = 0;
+        for(int i = 0; i < distances.size(); i++) {
+            int distance = distances.distance(i);
+            if(distance != DistanceTable.UNSOLVABLE) {
+                solvable++;
+                farthest = Math.max(farthest, distance);
+            }
+        }
+        System.out.println("File: " + args[0]);
+        System.out.println("Reachable Configs: " + distances.size());
+        System.out.println("Solvable Configs: " + solvable);
+        System.out.println("Farthest Config: " + farthest + " moves");
+        System.out.println("Start Config: " + distances.distance(model.getConfig()) + " moves");
+        System.out.printf("Built in %.1f ms%n", (built - start) / 1e6);
+        try {
+            distances.write(table);
+            System.out.println("Wrote: " + table);
+        } catch (IOException e) {
+            System.out.println("Failed to write table: " + table);
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package puzzles.strings;
 
+import puzzles.common.solver.BidirectionalSolver;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SolutionPath;
 import puzzles.common.solver.Solver;
+import puzzles.common.solver.SolverArgs;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 
 /**
  * Main class for the strings puzzle.
@@ -13,34 +20,67 @@ public class Strings {
      * Run an instance of the strings puzzle.
      *
      * @param args [0]: the starting string;
-     *             [1]: the finish string.
+     *             [1]: the finish string;
+     *             [2]: optional, verify also searches for a solution with the BFS and checks it is as short;
+     *             last: optional, --progress prints the progress of the search to standard error
      */
     public static void main(String[] args) {
-        if (args.length < 2) {
-            System.out.println(("Usage: java Strings start finish"));
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+        solve(args, out);
+        out.flush();
+    }
+
+    /**
+     * Run an instance of the strings puzzle the way main does, writing the results somewhere else than the standard output
+     * @param args the arguments main takes
+     * @param out where to write the results
+     */
+    public static void solve(String[] args, PrintWriter out) {
+        SolverArgs options = SolverArgs.parse(args);
+        args = options.args();
+        if (args.length < 2 || args.length > 3 || (args.length > 2 && !args[2].equals("verify"))) {
+            out.println(("Usage: java Strings start finish [verify] [--progress]"));
         } else {
             StringsConfig start= new StringsConfig(args[0],args[1]);//Create starting configuration
 
-            Solver s= new Solver();
+            Solver s= new StringsSolver();
+            options.listen(s);
 
             Iterable<Configuration> path = s.solve(start);
 
-            System.out.print("Start string: "+args[0]);
-            System.out.println(", Final string: "+args[1]);
+            //The BFS explores every combination of letters, so it is only run when asked to check the direct solution
+            Solver bfs = null;
+            Iterable<Configuration> bfsPath = null;
+            if (args.length > 2) {
+                bfs = new BidirectionalSolver();
+                options.listen(bfs);
+                bfsPath = bfs.solve(new StringsConfig(args[0], args[1]));
+            }
+
+            out.print("Start string: "+args[0]);
+            out.println(", Final string: "+args[1]);
 
-            System.out.println("Total configs: "+s.getTotalConfigs());
-            System.out.println("Unique configs: "+s.getUniqueConfigs());
+            out.println("Total configs: "+s.getTotalConfigs());
+            out.println("Unique configs: "+s.getUniqueConfigs());
 
             //Traverse through the path provided from solve in Solver, if path is null prints no solution
             if(path==null){
-                System.out.println("No Solution");
+                out.println("No Solution");
             }else {
                 int i = 0;
                 for (Configuration item : path) {
-                    System.out.println("Step " + i + ": " + item);
+                    out.println("Step " + i + ": " + item);
                     i++;
                 }
             }
+
+            if (bfs != null) {
+                out.println("BFS configs: " + bfs.getTotalConfigs() + " total, " + bfs.getUniqueConfigs() + " unique");
+                int moves = path == null ? -1 : ((SolutionPath) path).length() - 1;
+                int bfsMoves = bfsPath == null ? -1 : ((SolutionPath) bfsPath).length() - 1;
+                out.println(moves == bfsMoves ? "Verified: the BFS finds the same number of moves" :
+                        "Mismatch: the BFS finds " + (bfsMoves == -1 ? "no solution" : bfsMoves + " moves"));
+            }
         }
     }
 }
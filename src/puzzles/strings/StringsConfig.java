@@ -1,9 +1,14 @@
 package puzzles.strings;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.HeuristicConfiguration;
+import puzzles.common.solver.ReversibleConfiguration;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * The configuration class for the strings puzzle.
@@ -11,10 +16,13 @@ import java.util.LinkedList;
  * @author Victor Rabinovich
  */
 
-public class StringsConfig implements Configuration {
-    private static String start;//The starting string
-    private static String end;//The final string
-    private String current;//The current string
+public class StringsConfig implements ReversibleConfiguration, HeuristicConfiguration {
+    private final String start;//The starting string
+    final char[] end;//The letters of the final string
+    private final int endHash;//The hash of the final string
+    private final int[] weights;//What each position's letter is multiplied by in the hash, 31 to the power of the letters after it
+    char[] current;//The letters of the current string, never changed once the config is handed out
+    private int hash;//The hash of the current string, the same as String's hashCode of it
 
     /**
      * Initial Constructor for StringsConfig
@@ -22,9 +30,15 @@ public class StringsConfig implements Configuration {
      * @param end The target string
      */
     public StringsConfig(String start, String end){
-        StringsConfig.start=start;
-        StringsConfig.end=end;
-        this.current=start;//Set current string to the start
+        this.start=start;
+        this.end=end.toCharArray();
+        this.endHash=end.hashCode();
+        this.current=start.toCharArray();//Set current string to the start
+        this.hash=start.hashCode();
+        this.weights=new int[this.current.length];
+        for(int i=weights.length-1, weight=1; i>=0; i--, weight*=31){
+            weights[i]=weight;
+        }
     }
 
     /**
@@ -32,7 +46,42 @@ public class StringsConfig implements Configuration {
      * @param other A StringsConfig object to be copied
      */
     public StringsConfig(StringsConfig other){
-        this.current = other.current;
+        this.start = other.start;
+        this.end = other.end;
+        this.endHash = other.endHash;
+        this.weights = other.weights;
+        this.current = other.current.clone();
+        this.hash = other.hash;
+    }
+
+    /**
+     * Copy a config with one letter changed, the hash is updated with only that letter's difference
+     * @param other A StringsConfig object to be copied
+     * @param position The position of the letter to change
+     * @param letter The new letter
+     */
+    StringsConfig(StringsConfig other, int position, char letter){
+        this(other);
+        this.hash += (letter - this.current[position]) * weights[position];
+        this.current[position] = letter;
+    }
+
+    /**
+     * Create a config of the same puzzle with other letters
+     * @param other A StringsConfig object of the same puzzle
+     * @param current The letters of the new config, they must not be changed afterwards
+     */
+    StringsConfig(StringsConfig other, char[] current){
+        this.start = other.start;
+        this.end = other.end;
+        this.endHash = other.endHash;
+        this.weights = other.weights;
+        this.current = current;
+        int hash = 0;
+        for(char letter : current){
+            hash = 31 * hash + letter;
+        }
+        this.hash = hash;
     }
 
     /**
@@ -40,29 +89,53 @@ public class StringsConfig implements Configuration {
      * @return isSolution If current string equals the target string
      */
     public boolean isSolution(){
-        return this.current.equals(end);
+        return this.hash==endHash && Arrays.equals(this.current, end);
     }
 
     /**
-     * Check if two StringConfig objects are equal to each other
+     * Check if two StringConfig objects are equal to each other, only comparing the letters if the hashes match
      * @param other The object to be equated to
      * @return equals, if the two objects are equal
      */
     @Override
     public boolean equals(Object other) {
-        if(other instanceof StringsConfig) {
-            return this.current.equals(((StringsConfig) other).current);
+        if(other instanceof StringsConfig config) {
+            return this.hash == config.hash && Arrays.equals(this.current, config.current);
         }
         return false;
     }
 
     /**
      * Get the hash code for the configuration
-     * @return hashCode- The hash code of the configuration
+     * @return hashCode- The hash code of the configuration, kept up to date as letters change
      */
     @Override
     public int hashCode() {
-        return this.current.hashCode();
+        return this.hash;
+    }
+
+    /**
+     * Estimate the moves left as the sum of the distances around the alphabet between each letter and
+     * the letter of the target string, since a move only shifts one letter by one
+     * @return estimate The sum of the shortest circular distances of every letter
+     */
+    @Override
+    public int estimate() {
+        int estimate=0;
+        for(int i=0; i<current.length; i++){
+            int value=this.current[i];
+            int target=end[i];
+            if(value==target){
+                continue;
+            }
+            if(value<65 || value>90 || target<65 || target>90){//Anything but letters takes at least one move
+                estimate++;
+            }else{
+                int distance=Math.abs(value-target);
+                estimate+=Math.min(distance, 26-distance);
+            }
+        }
+        return estimate;
     }
 
     /**
@@ -73,39 +146,94 @@ public class StringsConfig implements Configuration {
     @Override
     public Collection<Configuration> getNeighbors() {
         Collection<Configuration> neighbors = new LinkedList<Configuration>();//Create the list of neighbors
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    /**
+     * Hand each neighboring string to an action, in the same order as getNeighbors
+     * @param action What to do with each neighbor
+     */
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> action) {
 
         //Loop through each character in the string
-        for(int i=0; i<current.length(); i++){
+        for(int i=0; i<current.length; i++){
             /*If character at current position matches character in the same position in target string skip this
             * iteration of the loop*/
-            if(this.current.charAt(i)==end.charAt(i)){
+            if(this.current[i]==end[i]){
                 continue;
             }
-            String temp=this.current;//Create copy of current for simplicity
-            int value=temp.charAt(i);//Letter being evaluated
-            int printValue;//The transforms letter
+            int value=this.current[i];//Letter being evaluated
 
-            //Shifts the letter down 1
-            if(value-1<65){//For wrap around
-                printValue=90;
-            }else{
-                printValue=value-1;
-            }
-            StringsConfig c= new StringsConfig(this);
-            c.current = temp.substring(0,i)+ (char) printValue +temp.substring(i+1);//Set state of new config
-            neighbors.add(c);//Add config to list
+            //Shifts the letter down 1, then up 1
+            action.accept(new StringsConfig(this, i, down(value)));//Hand config to the action
+            action.accept(new StringsConfig(this, i, up(value)));
+        }
+    }
 
-            //Shifts letter up 1
-            if(value+1>90){//For wrap around
-                printValue=65;
-            }else{
-                printValue=value+1;
+    /**
+     * Shift a letter down one, A wraps around to Z and so does anything before A
+     * @param value The letter
+     * @return shifted The letter before it
+     */
+    static char down(int value){
+        return (char) (value-1<65 ? 90 : value-1);//For wrap around
+    }
+
+    /**
+     * Shift a letter up one, Z wraps around to A and so does anything after Z
+     * @param value The letter
+     * @return shifted The letter after it
+     */
+    static char up(int value){
+        return (char) (value+1>90 ? 65 : value+1);//For wrap around
+    }
+
+    /**
+     * The puzzle can only be searched backwards when the starting string is made of capital letters,
+     * every string reachable from it is then made of capital letters too
+     * @return isReversible If the starting string only has the letters A-Z
+     */
+    @Override
+    public boolean isReversible() {
+        return start.chars().allMatch(letter -> letter >= 'A' && letter <= 'Z');
+    }
+
+    /**
+     * Get the only solution of the puzzle
+     * @return goals A collection holding the config of the target string
+     */
+    @Override
+    public Collection<Configuration> getGoals() {
+        return List.of(new StringsConfig(this, end));
+    }
+
+    /**
+     * Get the strings that have the current string as a neighbor. A letter could have been shifted down
+     * from the next letter or up from the previous one, but never from the letter of the target string
+     * since that letter is not changed by getNeighbors.
+     * @return predecessors A collection of StringsConfig that are predecessors of the current configuration
+     */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        Collection<Configuration> predecessors = new LinkedList<Configuration>();//Create the list of predecessors
+
+        //Loop through each character in the string
+        for(int i=0; i<current.length; i++){
+            int value=this.current[i];//Letter being evaluated
+            if(value<65 || value>90){//Only letters can come from other letters
+                continue;
+            }
+            //The letter after, which shifts down into this one, then the letter before, which shifts up into it
+            for(int previous : new int[]{value==90 ? 65 : value+1, value==65 ? 90 : value-1}){
+                if(previous==end[i]){
+                    continue;
+                }
+                predecessors.add(new StringsConfig(this, i, (char) previous));
             }
-            c= new StringsConfig(this);
-            c.current = temp.substring(0,i)+ (char) printValue +temp.substring(i+1);//Set state of new config
-            neighbors.add(new StringsConfig(c));
         }
-        return neighbors;
+        return predecessors;
     }
 
     /**
@@ -114,7 +242,7 @@ public class StringsConfig implements Configuration {
      */
     @Override
     public String toString() {
-        return this.current;
+        return new String(this.current);
     }
 
 }
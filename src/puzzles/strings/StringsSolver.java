@@ -0,0 +1,118 @@
+package puzzles.strings;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SolutionPath;
+import puzzles.common.solver.Solver;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A solver for the strings puzzle that doesn't search the strings at all. A move only ever shifts one
+ * letter, so every position goes from its starting letter to its final letter on its own and a shortest
+ * solution is just a shortest way for each position, one position after the other. The shortest way for
+ * a single letter is found by a BFS over letters, which on A-Z is simply the shorter way around the
+ * alphabet, and is remembered for every pair of letters. Long strings solve in time linear in the
+ * length of the solution instead of a search over every combination of letters. The total and unique
+ * configs of a solve are those of the searches over letters, one search per position.
+ */
+public class StringsSolver extends Solver {
+    /**
+     * A shortest way for one letter to become another
+     * @param letters The letters it goes through after the starting one, ending with the final one, null if it can't
+     * @param total The amount of letters the search over letters generated
+     * @param unique The amount of distinct letters the search over letters found
+     */
+    private record Way(char[] letters, int total, int unique) {}
+
+    private final Map<Integer,Way> ways = new HashMap<>();//The way of every pair of start and end letters searched so far
+
+    /**
+     * Solve the puzzle one position at a time
+     * @param startConfig The starting configuration, anything but a StringsConfig is solved by the common solver
+     * @return path The path from the start config to target config, null if a position can't reach its letter
+     */
+    @Override
+    public Iterable<Configuration> solve(Configuration startConfig){
+        if(!(startConfig instanceof StringsConfig start)){
+            return super.solve(startConfig);
+        }
+        searchStarted();
+        char[] from = start.current;
+        char[] end = start.end;
+        if(from.length != end.length){
+            searchFinished(0, 0);
+            return null;
+        }
+        char[][] letters = new char[from.length][];//The letters each position goes through after its start
+        int[] before = new int[from.length + 1];//The number of moves made before each position starts moving
+        for(int i = 0; i < from.length; i++){
+            //A remembered way counts the configs of its search again, so the counts don't depend on earlier solves
+            Way way = way(from[i], end[i]);
+            totalConfigs += way.total();
+            uniqueConfigs += way.unique();
+            letters[i] = way.letters();
+            if(letters[i] == null){
+                searchFinished(0, 0);
+                return null;
+            }
+            before[i + 1] = before[i] + letters[i].length;
+        }
+        int length = before[from.length] + 1;
+        searchFinished(length - 1, 0);
+        return new SolutionPath(length, step -> {
+            if(step == 0){
+                return start;
+            }
+            //The positions before the moving one are done, the ones after it haven't moved yet
+            char[] current = from.clone();
+            for(int i = 0; i < current.length && before[i] < step; i++){
+                int moved = Math.min(step - before[i], letters[i].length);
+                if(moved > 0){
+                    current[i] = letters[i][moved - 1];
+                }
+            }
+            return new StringsConfig(start, current);
+        });
+    }
+
+    /**
+     * Get a shortest way for one letter to become another
+     * @param from The starting letter
+     * @param to The final letter
+     * @return way The letters it goes through and the configs its search found
+     */
+    private Way way(char from, char to){
+        return ways.computeIfAbsent(from << 16 | to, pair -> {
+            //BFS over single letters, shifting down before up like StringsConfig does
+            Map<Character,Character> previous = new HashMap<>();
+            ArrayDeque<Character> queue = new ArrayDeque<>();
+            previous.put(from, from);
+            queue.add(from);
+            int total = 1;
+            while(!queue.isEmpty() && queue.peek() != to){
+                char letter = queue.remove();
+                for(char next : new char[]{StringsConfig.down(letter), StringsConfig.up(letter)}){
+                    total++;
+                    if(!previous.containsKey(next)){
+                        previous.put(next, letter);
+                        queue.add(next);
+                    }
+                }
+            }
+            if(queue.isEmpty()){
+                return new Way(null, total, previous.size());
+            }
+            int moves = 0;
+            for(char letter = to; letter != from; letter = previous.get(letter)){
+                moves++;
+            }
+            char[] letters = new char[moves];
+            for(char letter = to; letter != from; letter = previous.get(letter)){
+                letters[--moves] = letter;
+            }
+            return new Way(letters, total, previous.size());
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package puzzles.strings;
+
+import puzzles.common.solver.BidirectionalSolver;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SolutionPath;
+
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/**
+ * Checks StringsSolver against the BFS on random strings. For every pair of strings the direct solution
+ * has to be as short as the BFS solution and every step of it has to be a legal move from the step before.
+ */
+public class StringsVerify {
+    private static final String USAGE = "Usage: java StringsVerify count [maxLength] [seed]";
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ#!@";//Mostly letters, and some that wrap onto them
+
+    /**
+     * Solve random pairs of strings both ways and print every pair that doesn't check out
+     * @param args [0]: the amount of pairs;
+     *             [1]: optional, the longest string, 3 by default;
+     *             [2]: optional, the seed of the random strings, so a run can be repeated
+     */
+    public static void main(String[] args) {
+        int count, maxLength;
+        long seed;
+        try {
+            if (args.length < 1 || args.length > 3) {
+                throw new IllegalArgumentException();
+            }
+            count = Integer.parseInt(args[0]);
+            maxLength = args.length >= 2 ? Integer.parseInt(args[1]) : 3;
+            seed = args.length == 3 ? Long.parseLong(args[2]) : System.nanoTime();
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+        if (count < 1 || maxLength < 1) {
+            System.out.println(USAGE);
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        int failed = 0;
+        for (int i = 0; i < count; i++) {
+            int length = 1 + random.nextInt(maxLength);
+            String start = random(random, length);
+            String finish = random(random, length);
+            String problem = check(start, finish);
+            if (problem != null) {
+                failed++;
+                System.out.println(start + " " + finish + ": " + problem);
+            }
+        }
+        System.out.println("Checked " + count + " pairs with seed " + seed + ", " + failed + " failed");
+    }
+
+    /**
+     * Solve a pair of strings both ways
+     * @param start The starting string
+     * @param finish The finish string
+     * @return problem What is wrong with the direct solution, null if nothing is
+     */
+    private static String check(String start, String finish) {
+        Iterable<Configuration> path = new StringsSolver().solve(new StringsConfig(start, finish));
+        Iterable<Configuration> bfsPath = new BidirectionalSolver().solve(new StringsConfig(start, finish));
+        if (path == null || bfsPath == null) {
+            return path == bfsPath ? null : "only one of the solvers found a solution";
+        }
+        int moves = ((SolutionPath) path).length() - 1;
+        int bfsMoves = ((SolutionPath) bfsPath).length() - 1;
+        if (moves != bfsMoves) {
+            return moves + " moves but the BFS takes " + bfsMoves;
+        }
+        Iterator<Configuration> steps = path.iterator();
+        Configuration previous = steps.next();
+        while (steps.hasNext()) {
+            Configuration step = steps.next();
+            if (!previous.getNeighbors().contains(step)) {
+                return "can't move from " + previous + " to " + step;
+            }
+            previous = step;
+        }
+        return previous.isSolution() ? null : "the path ends at " + previous;
+    }
+
+    /**
+     * @param random Where the characters come from
+     * @param length The length of the string
+     * @return string A random string of LETTERS
+     */
+    private static String random(SplittableRandom random, int length) {
+        StringBuilder string = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            string.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return string.toString();
+    }
+}
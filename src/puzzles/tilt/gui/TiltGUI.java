@@ -10,6 +10,7 @@ import puzzles.common.Observer;
 import puzzles.tilt.model.TiltModel;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -108,7 +109,7 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
         Button hint=new Button("Hint");
         hint.setFont(Font.font(18));
         hint.setMinWidth(100);
-        hint.setOnAction(event -> model.getHint());
+        hint.setOnAction(event -> model.getHint(Platform::runLater));
 
         sidePanel.getChildren().add(load);
         sidePanel.getChildren().add(reset);
@@ -250,6 +251,9 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
             messageBox.setText("Next Step");
             updateBoard();
             return;
+        } else if (message.startsWith("Searching")) {//A hint is being searched for in the background
+            messageBox.setText(message);
+            return;
         } else if (message.startsWith("Solved")) {//Game was already solved when using a hint
             messageBox.setText("Already "+message);
             updateBoard();
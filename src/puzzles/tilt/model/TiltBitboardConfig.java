@@ -0,0 +1,261 @@
+package puzzles.tilt.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.HeuristicConfiguration;
+import puzzles.common.solver.KeyedConfiguration;
+import puzzles.common.solver.SymmetricConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * A configuration of the Tilt puzzle for boards up to 8x8, with the green and blue sliders kept as one
+ * bit per tile. A tilt moves every slider that has a free tile ahead of it one step at once, again and
+ * again until nothing can move, so the whole board tilts in at most size - 1 rounds of shifts and masks
+ * instead of copying and walking a char board. Sliders moved onto a hole fall in. Neighbors, keys,
+ * solutions and strings are the same as TiltConfig's for the same board.
+ * Tilting commutes with rotating and reflecting the board, so when the blockers and holes look the same
+ * after some rotation or reflection, the search only has to visit one config out of each set of images.
+ */
+public class TiltBitboardConfig implements KeyedConfiguration, HeuristicConfiguration, SymmetricConfiguration {
+    static final int SOUTH = 0, NORTH = 1, EAST = 2, WEST = 3;//Directions, in the order neighbors are made
+
+    private final TiltLayout layout;//The board shared by every config of the puzzle
+    private final long green, blue;//The tiles holding each type of slider
+
+    /**
+     * Constructor to create the initial config for a setup of the Tilt puzzle
+     * @param boardSize The side length of the board, at most MAX_SIZE
+     * @param boardLayout The layout of the game
+     */
+    public TiltBitboardConfig(int boardSize, char[][] boardLayout) {
+        if (!fits(boardSize)) {
+            throw new IllegalArgumentException("board is larger than " + TiltLayout.MAX_SIZE + "x" + TiltLayout.MAX_SIZE);
+        }
+        long g = 0, b = 0, blockers = 0, holes = 0;
+        for (int i = 0; i < boardSize; i++) {
+            for (int j = 0; j < boardSize; j++) {
+                long bit = 1L << (i * boardSize + j);
+                switch (boardLayout[i][j]) {
+                    case 'G' -> g |= bit;
+                    case 'B' -> b |= bit;
+                    case '*' -> blockers |= bit;
+                    case 'O' -> holes |= bit;
+                }
+            }
+        }
+        this.layout = new TiltLayout(boardSize, blockers, holes, Long.bitCount(b));
+        this.green = g;
+        this.blue = b;
+    }
+
+    /**
+     * Create a config of the same puzzle with other sliders
+     * @param layout The shared board
+     * @param green The green sliders
+     * @param blue The blue sliders
+     */
+    private TiltBitboardConfig(TiltLayout layout, long green, long blue) {
+        this.layout = layout;
+        this.green = green;
+        this.blue = blue;
+    }
+
+    /**
+     * Determine if a board can be stored in bits
+     * @param boardSize The side length of the board
+     * @return fits If the board is at most MAX_SIZE on a side
+     */
+    public static boolean fits(int boardSize) {
+        return boardSize <= TiltLayout.MAX_SIZE;
+    }
+
+    /**
+     * Determine if the current config is a solution to the puzzle
+     * @return isSolution: whether the config is a solution
+     */
+    @Override
+    public boolean isSolution() {
+        return green == 0 && Long.bitCount(blue) == layout.numBlue;
+    }
+
+    /**
+     * Estimate the tilts left, the same way TiltConfig does
+     * @return estimate 0 with no green sliders left, 2 if a green slider is not lined up with a hole, 1 otherwise
+     */
+    @Override
+    public int estimate() {
+        if (green == 0) {
+            return 0;
+        }
+        return (green & ~layout.holeLines) != 0 ? 2 : 1;
+    }
+
+    /**
+     * Creates a collection of the neighboring configurations
+     * @return neighbors The collection of neighboring configs
+     */
+    @Override
+    public Collection<Configuration> getNeighbors() {
+        Collection<Configuration> neighbors = new ArrayList<>(4);
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    /**
+     * Hand each legal tilt of the board to an action, tilting down, up, right and left
+     * @param action What to do with each neighbor
+     */
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> action) {
+        for (int direction = SOUTH; direction <= WEST; direction++) {
+            Configuration neighbor = tilt(direction);
+            if (neighbor != null) {
+                action.accept(neighbor);
+            }
+        }
+    }
+
+    /**
+     * Tilt the board
+     * @param direction SOUTH, NORTH, EAST or WEST
+     * @return neighbor The tilted config, null if a blue slider would fall in a hole
+     */
+    private TiltBitboardConfig tilt(int direction) {
+        int back = direction ^ 1;//The opposite direction
+        long g = green, b = blue;
+        while (true) {
+            long free = layout.board & ~(layout.blockers | g | b);
+            long movingGreen = g & layout.shift(free, back);
+            long movingBlue = b & layout.shift(free, back);
+            if ((movingGreen | movingBlue) == 0) {
+                return new TiltBitboardConfig(layout, g, b);
+            }
+            g = (g & ~movingGreen | layout.shift(movingGreen, direction)) & ~layout.holes;
+            b = b & ~movingBlue | layout.shift(movingBlue, direction);
+            if ((b & layout.holes) != 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Boards of up to 32 tiles can be keyed, the green sliders go in the low 32 bits of the key and
+     * the blue sliders in the high 32 bits
+     * @return hasKey If the board is small enough to be keyed
+     */
+    @Override
+    public boolean hasKey() {
+        return layout.size * layout.size <= Integer.SIZE;
+    }
+
+    /**
+     * Get the key of the board
+     * @return key The key of the configuration
+     */
+    @Override
+    public long getKey() {
+        return green | blue << Integer.SIZE;
+    }
+
+    /**
+     * Rebuild a config from a key
+     * @param key The key of the config
+     * @return config The config with the sliders of the key
+     */
+    @Override
+    public TiltBitboardConfig fromKey(long key) {
+        return new TiltBitboardConfig(layout, key & 0xFFFFFFFFL, key >>> Integer.SIZE);
+    }
+
+    /**
+     * Does the board look the same after a rotation or reflection?
+     * @return hasSymmetry If the blockers and holes have a symmetry besides the identity
+     */
+    @Override
+    public boolean hasSymmetry() {
+        return layout.symmetries.length > 0;
+    }
+
+    /**
+     * Get the image of this config under the board's symmetries with the smallest blue sliders,
+     * then the smallest green sliders, comparing them as unsigned numbers like keys are
+     * @return canonical The canonical config
+     */
+    @Override
+    public TiltBitboardConfig canonical() {
+        long g = green, b = blue;
+        for (int[] map : layout.symmetries) {
+            long imageBlue = TiltLayout.apply(blue, map);
+            long imageGreen = TiltLayout.apply(green, map);
+            int order = Long.compareUnsigned(imageBlue, b);
+            if (order < 0 || order == 0 && Long.compareUnsigned(imageGreen, g) < 0) {
+                g = imageGreen;
+                b = imageBlue;
+            }
+        }
+        return g == green && b == blue ? this : new TiltBitboardConfig(layout, g, b);
+    }
+
+    /**
+     * Get the key of the canonical config, without creating it
+     * @return key The smallest key of any image of this config
+     */
+    @Override
+    public long canonicalKey() {
+        long key = getKey();
+        for (int[] map : layout.symmetries) {
+            long image = TiltLayout.apply(green, map) | TiltLayout.apply(blue, map) << Integer.SIZE;
+            if (Long.compareUnsigned(image, key) < 0) {
+                key = image;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Determine if two configs are equal to each other
+     * @param other The object being compared to
+     * @return equals If the two objects are equal
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof TiltBitboardConfig c)) {
+            return false;
+        }
+        return green == c.green && blue == c.blue && (layout == c.layout || layout.size == c.layout.size
+                && layout.blockers == c.layout.blockers && layout.holes == c.layout.holes);
+    }
+
+    /**
+     * Get the hash code of the board
+     * @return hash The hashcode of the configuration
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode((green * 0x9E3779B97F4A7C15L) ^ blue);
+    }
+
+    /**
+     * The string of the current board
+     * @return toString The string of the current board
+     */
+    @Override
+    public String toString() {
+        int size = layout.size;
+        StringBuilder board = new StringBuilder(size * (2 * size + 1));
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                long bit = 1L << (i * size + j);
+                char tile = (green & bit) != 0 ? 'G' : (blue & bit) != 0 ? 'B' :
+                        (layout.blockers & bit) != 0 ? '*' : (layout.holes & bit) != 0 ? 'O' : '.';
+                board.append(tile).append(' ');
+            }
+            if (i != size - 1) {
+                board.append('\n');
+            }
+        }
+        return board.toString();
+    }
+}
@@ -2,10 +2,13 @@ package puzzles.tilt.model;
 
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.HeuristicConfiguration;
+import puzzles.common.solver.KeyedConfiguration;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.function.Consumer;
 
 /**
  * A program that represents a configuration of the Tilt puzzle and can form the following configurations
@@ -14,15 +17,15 @@ import java.util.LinkedList;
  * @author Victor Rabinovich
  */
 
-public class TiltConfig implements Configuration {
+public class TiltConfig implements KeyedConfiguration, HeuristicConfiguration {
     private static final char G_SLIDER = 'G';
     private static final char B_SLIDER = 'B';
     private static final char HOLE = 'O';
     private static final char EMPTY = '.';
     private static final char BLOCKER = '*';
 
-    protected static int boardSize;//Side length of the board
-    private static int NUM_BLUE;//Number of blue sliders the puzzle starts with
+    protected final int boardSize;//Side length of the board
+    private final int numBlue;//Number of blue sliders the puzzle starts with
     private int numGreen = 0, currentNumBlue = 0;//The number of each type of slider in the current config
     protected char[][] currentBoard;//The board of the current config
 
@@ -33,7 +36,7 @@ public class TiltConfig implements Configuration {
      * @param boardLayout The layout of the game
      */
     public TiltConfig(int boardSize, char[][] boardLayout) {
-        TiltConfig.boardSize = boardSize;
+        this.boardSize = boardSize;
         this.currentBoard = boardLayout;
 
         //Look through the board and count number of sliders
@@ -47,7 +50,7 @@ public class TiltConfig implements Configuration {
                 }
             }
         }
-        NUM_BLUE = currentNumBlue;
+        this.numBlue = currentNumBlue;
     }
 
     /**
@@ -55,6 +58,8 @@ public class TiltConfig implements Configuration {
      * @param other The config to be copied
      */
     private TiltConfig(TiltConfig other) {
+        this.boardSize = other.boardSize;
+        this.numBlue = other.numBlue;
         this.numGreen = other.numGreen;
         this.currentNumBlue = other.currentNumBlue;
 
@@ -65,6 +70,18 @@ public class TiltConfig implements Configuration {
         }
     }
 
+    /**
+     * Get a copy of the board, so changing it doesn't change the config
+     * @return board The tiles of the board
+     */
+    public char[][] getBoard() {
+        char[][] board = new char[boardSize][];
+        for (int i = 0; i < boardSize; i++) {
+            board[i] = currentBoard[i].clone();
+        }
+        return board;
+    }
+
     /**
      * Determine if the current config is a solution to the puzzle
      * @return isSolution: whether the config is a solution
@@ -72,35 +89,65 @@ public class TiltConfig implements Configuration {
     @Override
     public boolean isSolution() {
         //Checks is there are any green sliders and if # of blue sliders is still the same as the start
-        return (numGreen == 0) && (currentNumBlue == NUM_BLUE);
+        return (numGreen == 0) && (currentNumBlue == numBlue);
     }
 
     /**
-     * Creates a collection of the neighboring configurations
-     * @return neighbors The collection of neighboring configs
+     * Estimate the tilts left. A single tilt can drop every green slider lined up with a hole, so the
+     * number of green sliders would overestimate. Instead a green slider that shares no row or column
+     * with any hole needs at least one tilt to line up and one more to fall.
+     * @return estimate 0 with no green sliders left, 2 if a green slider is not lined up with a hole, 1 otherwise
      */
     @Override
-    public Collection<Configuration> getNeighbors() {
-        Collection<Configuration> neighbors = new LinkedList<>();
-        //Neighbor tilting down
-        if (southNeighbor() != null) {
-            neighbors.add(southNeighbor());
+    public int estimate() {
+        if (numGreen == 0) {
+            return 0;
         }
-        //Neighbor tilting up
-        if (northNeighbor() != null) {
-            neighbors.add(northNeighbor());
-        }
-        //Neighbor tilting left
-        if (eastNeighbor() != null) {
-            neighbors.add(eastNeighbor());
+        boolean[] holeRows = new boolean[boardSize];
+        boolean[] holeCols = new boolean[boardSize];
+        for (int i = 0; i < boardSize; i++) {
+            for (int j = 0; j < boardSize; j++) {
+                if (currentBoard[i][j] == HOLE) {
+                    holeRows[i] = true;
+                    holeCols[j] = true;
+                }
+            }
         }
-        //Neighbor tilting right
-        if (westNeighbor() != null) {
-            neighbors.add(westNeighbor());
+        for (int i = 0; i < boardSize; i++) {
+            for (int j = 0; j < boardSize; j++) {
+                if (currentBoard[i][j] == G_SLIDER && !holeRows[i] && !holeCols[j]) {
+                    return 2;
+                }
+            }
         }
+        return 1;
+    }
+
+    /**
+     * Creates a collection of the neighboring configurations
+     * @return neighbors The collection of neighboring configs
+     */
+    @Override
+    public Collection<Configuration> getNeighbors() {
+        Collection<Configuration> neighbors = new ArrayList<>(4);
+        forEachNeighbor(neighbors::add);
         return neighbors;
     }
 
+    /**
+     * Hand each legal tilt of the board to an action, every tilt is only computed once
+     * @param action What to do with each neighbor
+     */
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> action) {
+        //Neighbors tilting down, up, right and left
+        for (Configuration neighbor : new Configuration[]{southNeighbor(), northNeighbor(), eastNeighbor(), westNeighbor()}) {
+            if (neighbor != null) {
+                action.accept(neighbor);
+            }
+        }
+    }
+
     /**
      * Get the neighbor resulting from tilting the board up.
      * Used for the solver
@@ -262,6 +309,61 @@ public class TiltConfig implements Configuration {
         return c;
     }
 
+    /**
+     * Boards of up to 32 tiles can be keyed, the green sliders go in the low 32 bits of the key and
+     * the blue sliders in the high 32 bits
+     * @return hasKey If the board is small enough to be keyed
+     */
+    @Override
+    public boolean hasKey() {
+        return boardSize * boardSize <= Integer.SIZE;
+    }
+
+    /**
+     * Get the key of the board, one bit per tile for each type of slider
+     * @return key The key of the configuration
+     */
+    @Override
+    public long getKey() {
+        long key = 0;
+        for (int i = 0; i < boardSize; i++) {
+            for (int j = 0; j < boardSize; j++) {
+                switch (currentBoard[i][j]) {
+                    case G_SLIDER -> key |= 1L << (i * boardSize + j);
+                    case B_SLIDER -> key |= 1L << (i * boardSize + j + Integer.SIZE);
+                }
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Rebuild a config from a key, blockers and holes are copied from this config
+     * @param key The key of the config
+     * @return config The config with the sliders of the key
+     */
+    @Override
+    public TiltConfig fromKey(long key) {
+        TiltConfig c = new TiltConfig(this);
+        for (int i = 0; i < boardSize; i++) {
+            for (int j = 0; j < boardSize; j++) {
+                int bit = i * boardSize + j;
+                if (c.currentBoard[i][j] != BLOCKER && c.currentBoard[i][j] != HOLE) {
+                    if ((key >>> bit & 1) != 0) {
+                        c.currentBoard[i][j] = G_SLIDER;
+                    } else if ((key >>> (bit + Integer.SIZE) & 1) != 0) {
+                        c.currentBoard[i][j] = B_SLIDER;
+                    } else {
+                        c.currentBoard[i][j] = EMPTY;
+                    }
+                }
+            }
+        }
+        c.numGreen = Integer.bitCount((int) key);
+        c.currentNumBlue = Integer.bitCount((int) (key >>> Integer.SIZE));
+        return c;
+    }
+
     /**
      * Determine if two configs are equal to each other
      * @param other The object being compared to
@@ -297,15 +399,15 @@ public class TiltConfig implements Configuration {
      */
     @Override
     public String toString() {
-        String board = "";
+        StringBuilder board = new StringBuilder(boardSize * (2 * boardSize + 1));
         for (int i = 0; i < boardSize; i++) {
             for (int j = 0; j < boardSize; j++) {
-                board += currentBoard[i][j] + "\s";
+                board.append(currentBoard[i][j]).append(' ');
             }
             if (i != boardSize - 1) {
-                board += "\n";
+                board.append('\n');
             }
         }
-        return board;
+        return board.toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package puzzles.tilt.model;
+
+import puzzles.common.Generate;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SolutionPath;
+import puzzles.common.solver.SolveAbortedException;
+import puzzles.common.solver.SolveBudget;
+import puzzles.common.solver.Solver;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Makes tilt boards of a given difficulty. A candidate board gets a single hole, some blockers and some
+ * green and blue sliders dropped on random empty tiles, and is solved with the common solver. Its
+ * difficulty is the amount of tilts its shortest solution takes. Candidates that can't be solved, or
+ * whose search runs past the budget, are thrown away.
+ * A generator only keeps its board size, so one can be shared by any number of threads.
+ */
+public class TiltGenerator {
+
+    /**
+     * the most configs a candidate's search may find, so one huge candidate can't hold up a thread. Only the
+     * configs are limited, so whether a candidate is kept doesn't depend on what the other threads are doing
+     */
+    private static final SolveBudget BUDGET = new SolveBudget(1_000_000, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    /**
+     * A generated board
+     * @param tiles the tiles of the board
+     * @param moves the amount of tilts its shortest solution takes
+     * @param configs the amount of distinct configs found while solving it
+     */
+    public record Board(char[][] tiles, int moves, long configs) implements Generate.Board {
+
+        /**
+         * @return the board in the format of the data/tilt files
+         */
+        @Override
+        public String format() {
+            StringBuilder text = new StringBuilder();
+            text.append(tiles.length).append(System.lineSeparator());
+            for(char[] row : tiles) {
+                for(int j = 0; j < row.length; j++) {
+                    text.append(j == 0 ? "" : " ").append(row[j]);
+                }
+                text.append(System.lineSeparator());
+            }
+            return text.toString();
+        }
+
+        /**
+         * @return how many tilts the board takes and how many configs solving it found
+         */
+        @Override
+        public String summary() {
+            return moves + " moves, " + configs + " configs";
+        }
+    }
+
+    /**
+     * the side length of the boards
+     */
+    private final int size;
+
+    /**
+     * Creates a generator of boards of a given size
+     * @param size the side length of the boards, at least 2 so a slider can move
+     */
+    public TiltGenerator(int size) {
+        if(size < 2) {
+            throw new IllegalArgumentException("boards need to be at least 2x2");
+        }
+        this.size = size;
+    }
+
+    /**
+     * Makes one random board and solves it
+     * @param random where the tiles are placed from
+     * @return the board, null if it can't be solved within the budget
+     */
+    public Board generate(SplittableRandom random) {
+        int tiles = size * size;
+        // a few blockers, at least one green slider to get rid of and a blue slider now and then
+        char[][] board = place(random, tiles / 10 + random.nextInt(tiles / 10 + 1),
+                1 + random.nextInt(size), random.nextInt(size / 2 + 1));
+        Configuration start = TiltBitboardConfig.fits(size) ? new TiltBitboardConfig(size, board) : new TiltConfig(size, board);
+        Solver solver = new Solver();
+        solver.setBudget(BUDGET);
+        Iterable<Configuration> path;
+        try {
+            path = solver.solve(start);
+        } catch (SolveAbortedException e) {
+            return null;
+        }
+        if(path == null) {
+            return null;
+        }
+        return new Board(board, ((SolutionPath) path).length() - 1, solver.getUniqueConfigs());
+    }
+
+    /**
+     * Places one hole, then the blockers, green sliders and blue sliders on empty tiles
+     * @param random where the tiles are placed from
+     * @param blockers the amount of blockers
+     * @param green the amount of green sliders
+     * @param blue the amount of blue sliders
+     * @return the board
+     */
+    private char[][] place(SplittableRandom random, int blockers, int green, int blue) {
+        char[][] board = new char[size][size];
+        for(char[] row : board) {
+            Arrays.fill(row, '.');
+        }
+        drop(random, board, 'O', 1);
+        drop(random, board, '*', blockers);
+        drop(random, board, 'G', green);
+        drop(random, board, 'B', blue);
+        return board;
+    }
+
+    /**
+     * Puts a tile on random empty tiles of a board, as many times as there is room for
+     * @param random where the tiles are placed from
+     * @param board the board
+     * @param tile the tile to put
+     * @param amount the amount of times to put it
+     */
+    private void drop(SplittableRandom random, char[][] board, char tile, int amount) {
+        for(int placed = 0, tries = 0; placed < amount && tries < 20 * size * size; tries++) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            if(board[row][col] == '.') {
+                board[row][col] = tile;
+                placed++;
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package puzzles.tilt.model;
+
+import java.util.Arrays;
+
+/**
+ * The static part of a tilt puzzle that never changes while sliders move. The board is stored one bit
+ * per tile, tile (row, col) being bit row * size + col, so boards up to 8x8 fit in a long. Every config
+ * created from the same puzzle shares a single layout.
+ */
+final class TiltLayout {
+    /**
+     * the largest side length that fits in a long
+     */
+    static final int MAX_SIZE = 8;
+
+    /**
+     * the side length of the board
+     */
+    final int size;
+
+    /**
+     * the number of blue sliders the puzzle starts with
+     */
+    final int numBlue;
+
+    /**
+     * a bit for every tile on the board
+     */
+    final long board;
+
+    /**
+     * the blockers and the holes
+     */
+    final long blockers, holes;
+
+    /**
+     * every tile in the first and last col
+     */
+    final long firstCol, lastCol;
+
+    /**
+     * every tile sharing a row or a col with a hole
+     */
+    final long holeLines;
+
+    /**
+     * the rotations and reflections besides the identity that map the blockers and holes onto themselves,
+     * each one as the tile every tile is moved to
+     */
+    final int[][] symmetries;
+
+    /**
+     * Creates the layout of a board
+     * @param size the side length, at most MAX_SIZE
+     * @param blockers the blocker bits
+     * @param holes the hole bits
+     * @param numBlue the number of blue sliders
+     */
+    TiltLayout(int size, long blockers, long holes, int numBlue) {
+        this.size = size;
+        this.blockers = blockers;
+        this.holes = holes;
+        this.numBlue = numBlue;
+        this.board = size == MAX_SIZE ? -1L : (1L << size * size) - 1;
+        long first = 0, lines = 0;
+        for (int i = 0; i < size; i++) {
+            first |= 1L << i * size;
+        }
+        long firstRow = (1L << size) - 1;
+        for (int bit = 0; bit < size * size; bit++) {
+            if ((holes >>> bit & 1) != 0) {
+                lines |= firstRow << (bit / size * size) | first << (bit % size);
+            }
+        }
+        this.firstCol = first;
+        this.lastCol = first << (size - 1);
+        this.holeLines = lines;
+
+        //Try all 8 rotations and reflections of the square, keeping those the board looks the same under
+        int n = size - 1;
+        int[][] found = new int[7][];
+        int count = 0;
+        for (int symmetry = 1; symmetry < 8; symmetry++) {
+            int[] map = new int[size * size];
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int r = (symmetry & 4) != 0 ? col : row;//Transpose
+                    int c = (symmetry & 4) != 0 ? row : col;
+                    r = (symmetry & 2) != 0 ? n - r : r;//Flip upside down
+                    c = (symmetry & 1) != 0 ? n - c : c;//Flip left to right
+                    map[row * size + col] = r * size + c;
+                }
+            }
+            if (apply(blockers, map) == blockers && apply(holes, map) == holes) {
+                found[count++] = map;
+            }
+        }
+        this.symmetries = Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Move every tile to where a symmetry takes it
+     * @param bits the tiles
+     * @param map the tile each tile is moved to
+     * @return the moved tiles
+     */
+    static long apply(long bits, int[] map) {
+        long moved = 0;
+        for (long rest = bits; rest != 0; rest &= rest - 1) {
+            moved |= 1L << map[Long.numberOfTrailingZeros(rest)];
+        }
+        return moved;
+    }
+
+    /**
+     * Move every tile one step in a direction, dropping those that leave the board
+     * @param bits the tiles
+     * @param direction one of TiltBitboardConfig's directions
+     * @return the moved tiles
+     */
+    long shift(long bits, int direction) {
+        return switch (direction) {
+            case TiltBitboardConfig.SOUTH -> bits << size & board;
+            case TiltBitboardConfig.NORTH -> bits >>> size;
+            case TiltBitboardConfig.EAST -> (bits & ~lastCol) << 1;
+            default -> (bits & ~firstCol) >>> 1;
+        };
+    }
+}
@@ -1,16 +1,16 @@
 package puzzles.tilt.model;
 
 import puzzles.common.Observer;
-import puzzles.common.solver.Configuration;
-import puzzles.common.solver.Solver;
+import puzzles.common.PuzzleFile;
+import puzzles.common.solver.HintSearch;
+import puzzles.common.solver.SolutionCache;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.Executor;
 
 /**
  * A class to create a model for the tilt game to run under mvc
@@ -26,6 +26,24 @@ public class TiltModel {
 
     private String currentFile;
 
+    /** the solved paths of every tilt model, so hints from a config that was already solved are instant */
+    private static final SolutionCache HINTS = new SolutionCache(100_000);
+
+    /** the hint searches of this model */
+    private final HintSearch<TiltConfig> hints=new HintSearch<>(HINTS, "No Solution", "Solved");
+
+    /** the tilt file format: the side length of the board, then its tiles row by row */
+    private static final PuzzleFile.Format<TiltConfig> FORMAT = file -> {
+        int size = file.nextInt();
+        char[][] board = new char[size][size];
+        for(int i=0; i<size;i++){
+            for(int j=0; j<size;j++){
+                board[i][j]=file.nextChar();
+            }
+        }
+        return new TiltConfig(size, board);
+    };
+
     /**
      * Create the tilt model
      */
@@ -37,26 +55,29 @@ public class TiltModel {
      * @return loaded If it was successfully loaded
      */
     public boolean loadBoardFromFile(String filename){
-        try(BufferedReader in = new BufferedReader(new FileReader(filename))){
-            //parse file into a board that can be used to create the config
-            int size= Integer.parseInt(in.readLine());
-            char[][] board= new char[size][size];
-            for(int i=0; i<size;i++){
-                String[] line = in.readLine().split("\\s+");
-                for(int j=0; j<size;j++){
-                    board[i][j]=line[j].charAt(0);
-                }
-            }
-            this.currentConfig = new TiltConfig(size,board);
+        try{
+            this.currentConfig = readConfig(filename);
             alertObservers("Loaded: "+ filename);
             currentFile=filename;
             return true;
-        }catch (IOException e){
+        }catch (IOException | IllegalArgumentException e){
             alertObservers("Failed to load " + filename);//If not successful
             return false;
         }
     }
 
+    /**
+     * Read the starting config of a tilt file. Loads of the same file share one config, which is never changed
+     * since every move makes a new config and only copies of its board are handed out
+     * @param filename The file to be read
+     * @return config The config of the board in the file
+     * @throws IOException If the file can't be read
+     * @throws IllegalArgumentException If the file is not a tilt board
+     */
+    public static TiltConfig readConfig(String filename) throws IOException {
+        return PuzzleFile.load(filename, FORMAT);
+    }
+
     /**
      * Tilt the board in a certain direction
      * @param direction The direction to tilt the board (N,E,S,W)
@@ -108,47 +129,80 @@ public class TiltModel {
     }
 
     /**
-     * Find the solution for the puzzle and set the config to the next step in achieving it
+     * Find the solution for the puzzle and set the config to the next step in achieving it, searching on this thread
      */
     public void getHint(){
-        Solver hintSolver=new Solver();
-        LinkedList<Configuration> path=(LinkedList<Configuration>) hintSolver.solve(currentConfig);
-        if(path==null){//No solution is found
-            alertObservers("No Solution");
-        } else if (path.size()==1) {//Already solved
-            currentConfig=(TiltConfig) path.get(0);
-            alertObservers("Solved");
-        }else {//NExt step in solution path
-            currentConfig=(TiltConfig) path.get(1);
-            alertObservers("Hint");
+        if(knownHint()){
+            return;
+        }
+        applyHint(currentConfig, hints.search(currentConfig));
+    }
+
+    /**
+     * Find the next step like getHint, but search in the background so the caller isn't blocked. Asking
+     * for a hint while another is searching cancels the older one. The hint is applied and the observers
+     * are told through the callback executor, the GUI passes Platform::runLater.
+     * @param callback Runs the code that applies the hint, on the thread that owns the model
+     */
+    public void getHint(Executor callback){
+        if(knownHint()){
+            return;
+        }
+        TiltConfig from=currentConfig;
+        alertObservers("Searching for a hint...");
+        hints.search(from, callback, hint -> applyHint(from, hint));
+    }
+
+    /**
+     * Answer a hint from a path solved before, without searching
+     * @return answered If the hint was answered
+     */
+    private boolean knownHint(){
+        HintSearch.Hint<TiltConfig> known=hints.known(currentConfig);
+        if(known==null){//Not on any path solved before
+            return false;
         }
+        applyHint(currentConfig, known);
+        return true;
+    }
 
+    /**
+     * Move to the hinted config, unless the board changed since the hint was asked for
+     * @param from The config the hint is for
+     * @param hint The hint
+     */
+    private void applyHint(TiltConfig from, HintSearch.Hint<TiltConfig> hint){
+        if(from!=currentConfig){
+            return;
+        }
+        if(hint.next()==null){//Already solved, or no step was found
+            alertObservers(hint.failure());
+        }else {//Next step in solution path
+            currentConfig=hint.next();
+            alertObservers("Hint");
+        }
     }
 
     /**
      * Reset the game to the current file
      */
     public void resetBoard(){
-        try(BufferedReader in = new BufferedReader(new FileReader(currentFile))){
-            int size= Integer.parseInt(in.readLine());
-            char[][] board= new char[size][size];
-            for(int i=0; i<size;i++){
-                String[] line = in.readLine().split("\\s+");
-                for(int j=0; j<size;j++){
-                    board[i][j]=line[j].charAt(0);
-                }
-            }
-            this.currentConfig = new TiltConfig(size,board);
-        }catch (IOException e){}
+        //The start config is cached, so this only reads the file again if it changed
+        try{
+            this.currentConfig = readConfig(currentFile);
+        }catch (IOException | IllegalArgumentException e){
+            alertObservers("Failed to load " + currentFile);//The game stays as it was
+            return;
+        }
         alertObservers("RESET");
     }
 
     /**
      * Get the board of the config
-     * @return board The current config's board
+     * @return board A copy of the current config's board
      */
     public char[][] getConfigBoard(){
-        return currentConfig.currentBoard;
+        return currentConfig.getBoard();
     }
 
     /**
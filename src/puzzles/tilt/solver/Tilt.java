@@ -1,13 +1,17 @@
 package puzzles.tilt.solver;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ParallelSolver;
 import puzzles.common.solver.Solver;
+import puzzles.common.solver.SolverArgs;
+import puzzles.tilt.model.TiltBitboardConfig;
 import puzzles.tilt.model.TiltConfig;
+import puzzles.tilt.model.TiltModel;
 
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 
 /**
  * A class to solve tile puzzles
@@ -15,45 +19,61 @@ import java.io.IOException;
  * @author Victor Rabinovich
  */
 public class Tilt {
+    /**
+     * Solve the tilt puzzle in a file
+     * @param args [0]: the puzzle file;
+     *             [1]: optional, solve with a parallel solver using this many threads
+     *             last: optional, --progress prints the progress of the search to standard error
+     */
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.out.println("Usage: java Tilt filename");
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+        solve(args, out);
+        out.flush();
+    }
+
+    /**
+     * Solve the tilt puzzle in a file the way main does, writing the results somewhere else than the standard output
+     * @param args the arguments main takes
+     * @param out where to write the results, everything goes through it so it should be buffered
+     */
+    public static void solve(String[] args, PrintWriter out) {
+        SolverArgs options = SolverArgs.parse(args);
+        args = options.args();
+        int threads = args.length == 2 ? SolverArgs.threads(args[1]) : 0;
+        if ((args.length != 1 && args.length != 2) || threads == -1) {
+            out.println("Usage: java Tilt filename [threads] [--progress]");
         }
         else{
-            try(BufferedReader in = new BufferedReader(new FileReader(args[0]))){
+            try{
                 //Process the file
-                int size= Integer.parseInt(in.readLine());
-                char[][] board= new char[size][size];
-                for(int i=0; i<size;i++){
-                    String[] line = in.readLine().split("\\s+");
-                    for(int j=0; j<size;j++){
-                        board[i][j]=line[j].charAt(0);
-                    }
-                }
+                TiltConfig config= TiltModel.readConfig(args[0]);
+                char[][] board= config.getBoard();
+                int size= board.length;
 
-                //Create initial config and send it to common solver
-                Configuration start=new TiltConfig(size,board);
-                Solver s=new Solver();
+                //Create initial config and send it to common solver, boards that fit in a long use bitboards
+                Configuration start=TiltBitboardConfig.fits(size) ? new TiltBitboardConfig(size,board) : config;
+                Solver s=args.length==2 ? new ParallelSolver(threads) : new Solver();
+                options.listen(s);
                 Iterable<Configuration> path = s.solve(start);
 
                 //Display results
-                System.out.println("File: "+args[0]);
-                System.out.println(start);;
-                System.out.println("Total configs: "+s.getTotalConfigs());
-                System.out.println("Unique configs: "+s.getUniqueConfigs());
+                out.println("File: "+args[0]);
+                out.println(start);
+                out.println("Total configs: "+s.getTotalConfigs());
+                out.println("Unique configs: "+s.getUniqueConfigs());
 
                 if(path==null){
-                    System.out.println("No Solution");
+                    out.println("No Solution");
                 }else {
                     int i = 0;
                     for (Configuration item : path) {
-                        System.out.println("Step " + i + ":\n" + item+"\n");
+                        out.append("Step ").append(String.valueOf(i)).append(":\n").append(item.toString()).println("\n");
                         i++;
                     }
                 }
 
-            }catch (IOException e){
-
+            }catch (IOException | IllegalArgumentException e){
+                out.println("Failed to load file: " + args[0]);
             }
 
         }
@@ -0,0 +1,50 @@
+package puzzles.tilt.solver;
+
+import puzzles.common.Generate;
+import puzzles.common.solver.SolverArgs;
+import puzzles.tilt.model.TiltGenerator;
+
+import java.nio.file.Path;
+
+public class TiltGenerate {
+
+    private static final String USAGE = "Usage: java TiltGenerate count minMoves output [size] [threads]";
+
+    /**
+     * Generates boards into a directory in the data/tilt format, named gen-0.txt, gen-1.txt, ...
+     * Every thread keeps making and solving random boards and keeps each one whose shortest solution
+     * is long enough, if no other thread found the same board.
+     * @param args [0]: the amount of boards;
+     *             [1]: the fewest tilts a board's shortest solution may take;
+     *             [2]: the directory to write the boards to;
+     *             [3]: optional, the side length of the boards, 5 by default;
+     *             [4]: optional, the amount of threads, one per processor by default
+     */
+    public static void main(String[] args) {
+        int count, minMoves, size, threads;
+        try {
+            if (args.length < 3 || args.length > 5) {
+                throw new IllegalArgumentException();
+            }
+            count = Integer.parseInt(args[0]);
+            minMoves = Integer.parseInt(args[1]);
+            size = args.length >= 4 ? Integer.parseInt(args[3]) : 5;
+            threads = args.length == 5 ? SolverArgs.threads(args[4]) : Runtime.getRuntime().availableProcessors();
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+        if (count < 1 || threads == -1) {
+            System.out.println(USAGE);
+            return;
+        }
+        TiltGenerator generator;
+        try {
+            generator = new TiltGenerator(size);
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE + ", " + e.getMessage());
+            return;
+        }
+        Generate.run(count, minMoves, Path.of(args[2]), threads, generator::generate);
+    }
+}
@@ -2,6 +2,10 @@ package puzzles.water;
 
 import puzzles.common.solver.Configuration;
 import puzzles.common.solver.Solver;
+import puzzles.common.solver.SolverArgs;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.util.Arrays;
 
 /**
@@ -16,11 +20,25 @@ public class Water {
      *
      * @param args [0]: desired amount of water to be collected;
      *             [1..N]: the capacities of the N available buckets.
+     *             last: optional, --progress prints the progress of the search to standard error
      */
     public static void main(String[] args) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+        solve(args, out);
+        out.flush();
+    }
+
+    /**
+     * Run an instance of the water buckets puzzle the way main does, writing the results somewhere else than the standard output
+     * @param args the arguments main takes
+     * @param out where to write the results
+     */
+    public static void solve(String[] args, PrintWriter out) {
+        SolverArgs options = SolverArgs.parse(args);
+        args = options.args();
         if (args.length < 2) {
-            System.out.println(
-                    ("Usage: java Water amount bucket1 bucket2 ...")
+            out.println(
+                    ("Usage: java Water amount bucket1 bucket2 ... [--progress]")
             );
         } else {
             //Get all the buckets from the command line arguments
@@ -31,22 +49,23 @@ public class Water {
 
             WaterConfig start= new WaterConfig(Integer.valueOf(args[0]), buckets);//Create starting configuration
 
-            Solver s= new Solver();
+            Solver s= new WaterSolver();
+            options.listen(s);
             Iterable<Configuration> path = s.solve(start);
 
-            System.out.print("Amount: "+args[0]);
-            System.out.println(", Buckets: "+ Arrays.toString(buckets));
+            out.print("Amount: "+args[0]);
+            out.println(", Buckets: "+ Arrays.toString(buckets));
 
-            System.out.println("Total configs: "+s.getTotalConfigs());
-            System.out.println("Unique configs: "+s.getUniqueConfigs());
+            out.println("Total configs: "+s.getTotalConfigs());
+            out.println("Unique configs: "+s.getUniqueConfigs());
 
             //Traverse through the path provided from solve in Solver, if path is null prints no solution
             if(path==null){
-                System.out.println("No Solution");
+                out.println("No Solution");
             }else {
                 int i = 0;
                 for (Configuration item : path) {
-                    System.out.println("Step " + i + ": " + item);
+                    out.println("Step " + i + ": " + item);
                     i++;
                 }
             }
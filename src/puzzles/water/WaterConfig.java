@@ -1,9 +1,11 @@
 package puzzles.water;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.KeyedConfiguration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.function.Consumer;
 
 /**
  * The configuration class for the water buckets puzzle.
@@ -11,9 +13,9 @@ import java.util.LinkedList;
  * @author Victor Rabinovich
  */
 
-public class WaterConfig implements Configuration {
-    private static int amount;//Final amount in single bucket
-    private static int[] capacities;//Bucket capacities
+public class WaterConfig implements KeyedConfiguration {
+    final int amount;//Final amount in single bucket
+    final int[] capacities;//Bucket capacities
     private int[] current;//Current state of each bucket
 
     /**
@@ -23,7 +25,7 @@ public class WaterConfig implements Configuration {
      */
     public WaterConfig(int amount,int[] capacities){
         this.capacities=capacities;
-        WaterConfig.amount=amount;
+        this.amount=amount;
         this.current=new int[capacities.length];
         //Set each bucket to have a starting state of 0 water
         for(int i=0; i<this.current.length;i++){
@@ -36,6 +38,8 @@ public class WaterConfig implements Configuration {
      * @param other A WaterConfig obj that will be copied
      */
     public WaterConfig(WaterConfig other){
+        this.amount=other.amount;
+        this.capacities=other.capacities;
         //Hard copying the current array for the object
         this.current=new int[other.current.length];
         System.arraycopy(other.current,0, this.current,0, this.current.length);
@@ -66,22 +70,32 @@ public class WaterConfig implements Configuration {
     @Override
     public Collection<Configuration> getNeighbors() {
         Collection<Configuration> neighbors= new LinkedList<>();//List of neighbors to be returned
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    /**
+     * Hands each of the next possible states to an action, in the same order as getNeighbors
+     * @param action What to do with each neighbor
+     */
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> action) {
         WaterConfig c;
         for(int i=0;i<this.current.length; i++){//Go through each bucket
 
 
             //Completely fill the bucket to its capacity and add it to the list
-            if(this.current[i]!=WaterConfig.capacities[i]) {
+            if(this.current[i]!=this.capacities[i]) {
                 c = new WaterConfig(this);
-                c.current[i] = WaterConfig.capacities[i];
-                neighbors.add(c);
+                c.current[i] = this.capacities[i];
+                action.accept(c);
             }
 
             //Dump the water in the bucket and add new configuration to the list
             if(this.current[i]!=0) {
                 c = new WaterConfig(this);
                 c.current[i] = 0;
-                neighbors.add(c);
+                action.accept(c);
             }
 
             //Pour a bucket into another bucket that isn't itself
@@ -92,11 +106,55 @@ public class WaterConfig implements Configuration {
                     c = new WaterConfig(this);
                     c.current[i] -= pourAmount;
                     c.current[j] += pourAmount;
-                    neighbors.add(c);
+                    action.accept(c);
                 }
             }
         }
-        return neighbors;
+    }
+
+    /**
+     * The config can be keyed if every combination of bucket amounts fits into a long
+     * @return hasKey, if the product of (capacity + 1) over all buckets fits into a long
+     */
+    @Override
+    public boolean hasKey() {
+        long states = 1;
+        for(int capacity : capacities) {
+            if(states > Long.MAX_VALUE / (capacity + 1)) {
+                return false;
+            }
+            states *= capacity + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Get the key of the config, the bucket amounts as the digits of a mixed radix number
+     * where each bucket's radix is its capacity + 1
+     * @return key, the key of the config
+     */
+    @Override
+    public long getKey() {
+        long key = 0;
+        for(int i = this.current.length - 1; i >= 0; i--) {
+            key = key * (capacities[i] + 1) + this.current[i];
+        }
+        return key;
+    }
+
+    /**
+     * Rebuild a config from its key
+     * @param key The key of the config
+     * @return config, the config with the bucket amounts of the key
+     */
+    @Override
+    public WaterConfig fromKey(long key) {
+        WaterConfig c = new WaterConfig(this);
+        for(int i = 0; i < c.current.length; i++) {
+            c.current[i] = (int) (key % (capacities[i] + 1));
+            key /= capacities[i] + 1;
+        }
+        return c;
     }
 
     /**
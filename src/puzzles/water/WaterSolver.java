@@ -0,0 +1,183 @@
+package puzzles.water;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.LongHashIndex;
+import puzzles.common.solver.SolutionPath;
+import puzzles.common.solver.Solver;
+
+import java.util.Arrays;
+
+/**
+ * A BFS solver specialised for the water buckets puzzle. A state is the bucket amounts as the digits of a
+ * mixed radix number, the same code as WaterConfig's key, and every move is worked out by adding to or
+ * subtracting from that code, so no configuration is created until the path is handed out. When the number
+ * of possible states is small enough the visited states are bits of a flat bitmap indexed by their code,
+ * otherwise they go into a LongHashIndex. Neighbors are generated in the same order as WaterConfig does,
+ * so the counts and the path are the same as the common solver's.
+ */
+public class WaterSolver extends Solver {
+    private static final long FLAT_STATES = 1L << 27;//Most states marked in a flat bitmap, 16 MB
+
+    private long[] seen;//One bit per possible state when there are few enough of them, null otherwise
+    private LongHashIndex index;//Every visited code in BFS order when there is no bitmap, null otherwise
+    private long[] codes;//Every visited code in BFS order when there is a bitmap
+    private int[] parents;//The index of the state each state came from, -1 for the start
+    private int size;//The number of visited states
+
+    /**
+     * Method to execute a Breadth First Search over the codes of the bucket amounts
+     * @param startConfig The starting configuration, anything but a keyed WaterConfig is solved by the common solver
+     * @return path The path from the start config to target config
+     */
+    @Override
+    public Iterable<Configuration> solve(Configuration startConfig){
+        //Nothing is kept from an earlier solve, which may have used the other kind of visited set
+        seen = null;
+        index = null;
+        codes = null;
+        parents = null;
+        size = 0;
+        if(!(startConfig instanceof WaterConfig start) || !start.hasKey()){
+            return super.solve(startConfig);
+        }
+        searchStarted();
+        int[] capacities = start.capacities;
+        long[] places = new long[capacities.length];//The value of one gallon in each bucket
+        long states = 1;
+        for(int i = 0; i < capacities.length; i++){
+            places[i] = states;
+            states *= capacities[i] + 1;
+        }
+        if(states <= FLAT_STATES){
+            seen = new long[(int) ((states + 63) >>> 6)];
+            codes = new long[16];
+        }else{
+            index = new LongHashIndex();
+        }
+        parents = new int[16];
+        visit(start.getKey(), -1);
+        uniqueConfigs++;
+        totalConfigs++;
+
+        //Loops until every discovered state has been visited or the next one is the solution
+        int[] amounts = new int[capacities.length];//The bucket amounts of the state being expanded
+        int depth = 0;//The number of moves to the states of the level being expanded
+        int levelEnd = 1;//The index after the last state of that level
+        for(int head = 0; head < size; head++){
+            long code = code(head);
+            boolean solution = false;
+            long rest = code;
+            for(int i = 0; i < amounts.length; i++){
+                amounts[i] = (int) (rest % (capacities[i] + 1));
+                rest /= capacities[i] + 1;
+                solution |= amounts[i] == start.amount;
+            }
+            if(solution){
+                searchFinished(depth, size - head);
+                return path(start, head);
+            }
+            for(int i = 0; i < amounts.length; i++){
+                //Fill the bucket, then dump it, then pour it into each other bucket
+                if(amounts[i] != capacities[i]){
+                    neighbor(code + (capacities[i] - amounts[i]) * places[i], head);
+                }
+                if(amounts[i] != 0){
+                    neighbor(code - amounts[i] * places[i], head);
+                }
+                for(int j = 0; j < amounts.length; j++){
+                    int pour = i == j ? 0 : Math.min(amounts[i], capacities[j] - amounts[j]);
+                    if(pour != 0){
+                        neighbor(code + pour * (places[j] - places[i]), head);
+                    }
+                }
+            }
+            expandedConfigs++;
+            checkBudget();
+            if(head + 1 == levelEnd){//Everything discovered after this level is the next level
+                levelEnd = size;
+                levelFinished(depth++, levelEnd - head - 1);
+            }
+        }
+        searchFinished(depth, 0);
+        return null;//Every state was visited with no solution being found
+    }
+
+    /**
+     * Count a generated state, and remember it if it was never visited
+     * @param code The code of the state
+     * @param parent The index of the state it came from
+     */
+    private void neighbor(long code, int parent){
+        totalConfigs++;
+        if(visit(code, parent)){
+            uniqueConfigs++;
+        }
+    }
+
+    /**
+     * Remember a state if it was never visited
+     * @param code The code of the state
+     * @param parent The index of the state it came from, -1 for the start
+     * @return visited If the state is new
+     */
+    private boolean visit(long code, int parent){
+        if(seen != null){
+            int word = (int) (code >>> 6);
+            long bit = 1L << code;
+            if((seen[word] & bit) != 0){
+                return false;
+            }
+            seen[word] |= bit;
+            if(size == codes.length){
+                codes = Arrays.copyOf(codes, size * 2);
+            }
+            codes[size] = code;
+        }else if(index.add(code) == -1){
+            return false;
+        }
+        if(size == parents.length){
+            parents = Arrays.copyOf(parents, size * 2);
+        }
+        parents[size++] = parent;
+        return true;
+    }
+
+    /**
+     * Get the code of a visited state
+     * @param visited The index of the state, in the order states were visited
+     * @return code The code of the state
+     */
+    private long code(int visited){
+        return seen != null ? codes[visited] : index.key(visited);
+    }
+
+    /**
+     * Measure the memory used to remember the visited states
+     * @return bytes The bitmap and the codes, or the index, and the parents
+     */
+    @Override
+    protected long visitedBytes(){
+        if(parents == null){//Solved by the common solver
+            return super.visitedBytes();
+        }
+        return (seen != null ? 8L * seen.length + 8L * codes.length : index.bytes()) + 4L * parents.length;
+    }
+
+    /**
+     * Walk the parents back from a solution, each config is only built when the path reaches it
+     * @param start The starting configuration
+     * @param end The index of the solution
+     * @return path The path from the start config to the solution
+     */
+    private SolutionPath path(WaterConfig start, int end){
+        int length = 1;
+        for(int visited = parents[end]; visited != -1; visited = parents[visited]){
+            length++;
+        }
+        long[] steps = new long[length];
+        for(int step = length - 1, visited = end; visited != -1; step--, visited = parents[visited]){
+            steps[step] = code(visited);
+        }
+        return new SolutionPath(length, step -> step == 0 ? start : start.fromKey(steps[step]));
+    }
+}